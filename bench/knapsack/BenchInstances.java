@@ -0,0 +1,26 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+/**
+ * Instances à graine fixe pour les benchmarks JMH, tirées par InstanceGenerator (classes de Pisinger, comme kplib).
+ * Plage des poids R = 1000, capacité = moitié du poids total.
+ * Publique : le code généré par JMH (package knapsack.jmh_generated) lit l'énumération des paramètres,
+ * qui reprend les noms de InstanceGenerator.Kind (package-private).
+ */
+public final class BenchInstances {
+
+    public enum Correlation {
+        UNCORRELATED, WEAKLY_CORRELATED, STRONGLY_CORRELATED, INVERSE_STRONGLY_CORRELATED, ALMOST_STRONGLY_CORRELATED,
+        SUBSET_SUM, UNCORRELATED_SIMILAR_WEIGHTS, SPANNER_UNCORRELATED, SPANNER_WEAKLY_CORRELATED,
+        SPANNER_STRONGLY_CORRELATED, MULTIPLE_STRONGLY_CORRELATED, PROFIT_CEILING, CIRCLE
+    }
+
+    static final int RANGE = InstanceGenerator.DEFAULT_RANGE;
+
+    private BenchInstances() {}
+
+    static Instance generate(Correlation cls, int n, long seed) {
+        return InstanceGenerator.generate(InstanceGenerator.Kind.valueOf(cls.name()), n, RANGE, seed);
+    }
+}
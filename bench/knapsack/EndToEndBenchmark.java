@@ -0,0 +1,70 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import com.google.ortools.Loader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Résolutions de bout en bout (construction du modèle comprise) des méthodes Choco et CBC,
+ * sur les instances de secours de generateFallbackInstances (Random(42), donc identiques d'une exécution à l'autre).
+ * Chaque appel peut durer plusieurs centaines de millisecondes : mode SingleShotTime avec plusieurs répétitions.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    static final long TIME_LIMIT = 60_000;
+
+    @Param({"facile_gen_0", "moyen_gen_0", "difficile_gen_0"})
+    String instance;
+
+    private Instance inst;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Loader.loadNativeLibraries();
+        inst = KnapsackSolver.generateFallbackInstances().stream()
+                .filter(i -> i.name.equals(instance))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Instance inconnue: " + instance));
+    }
+
+    @Benchmark
+    public Result ratioFirst() {
+        return KnapsackSolver.solveCompleteRatioFirst(inst, TIME_LIMIT);
+    }
+
+    @Benchmark
+    public Result domOverWDeg() {
+        return KnapsackSolver.solveCompleteDomOverWDeg(inst, TIME_LIMIT);
+    }
+
+    @Benchmark
+    public Result milp() {
+        return KnapsackSolver.solveCompleteMILP_ORTools(inst, TIME_LIMIT);
+    }
+
+    @Benchmark
+    public Result core() {
+        return KnapsackSolver.solveCompleteCore(inst, TIME_LIMIT);
+    }
+}
@@ -0,0 +1,84 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** Fonctions utilitaires : tri par ratio et lecture d'un fichier .kp (texte, puis depuis le cache binaire). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelpersBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    int n;
+
+    @Param({"UNCORRELATED", "STRONGLY_CORRELATED"})
+    BenchInstances.Correlation correlation;
+
+    private Instance inst;
+    private Path dir;
+    private Path kpFile;
+    private Path cacheDir;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        inst = BenchInstances.generate(correlation, n, 42);
+
+        // Arborescence kplib temporaire pour readInstance
+        dir = Files.createTempDirectory("kpbench");
+        kpFile = dir.resolve("kplib/bench/n" + n + "/R01000/s000.kp");
+        Files.createDirectories(kpFile.getParent());
+        StringBuilder sb = new StringBuilder().append(n).append('\n').append(inst.capacity).append("\n\n");
+        for (int i = 0; i < n; i++) sb.append(inst.profits[i]).append(' ').append(inst.weights[i]).append('\n');
+        Files.writeString(kpFile, sb);
+        cacheDir = dir.resolve("cache");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        InstanceCache.setDirectory(Path.of(InstanceCache.DEFAULT_DIR));
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int[] orderByRatio() {
+        return KnapsackSolver.orderByRatio(inst);
+    }
+
+    @Benchmark
+    public Instance readInstanceText() {
+        InstanceCache.setDirectory(null);
+        return KnapsackSolver.readInstance(kpFile, inst.name, inst.difficulty);
+    }
+
+    @Benchmark
+    public Instance readInstanceCached() {
+        InstanceCache.setDirectory(cacheDir); // la première itération de chauffe remplit le cache
+        return KnapsackSolver.readInstance(kpFile, inst.name, inst.difficulty);
+    }
+}
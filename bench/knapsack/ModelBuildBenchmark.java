@@ -0,0 +1,87 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import com.google.ortools.Loader;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import org.chocosolver.solver.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction des modèles seule, sans résolution : KnapsackModels, utilisé par les méthodes Choco et solveCompleteMILP_ORTools.
+ * mpSolverModel garde la construction complète d'un MPSolver comme référence pour mpSolverTemplate (modèle réutilisé).
+ * Les bibliothèques natives d'OR-Tools sont chargées une fois par fork, hors mesure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBuildBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    int n;
+
+    @Param({"UNCORRELATED", "STRONGLY_CORRELATED"})
+    BenchInstances.Correlation correlation;
+
+    private Instance inst;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Loader.loadNativeLibraries();
+        inst = BenchInstances.generate(correlation, n, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        KnapsackModels.clearTemplates();
+    }
+
+    @Benchmark
+    public Model chocoModel() {
+        return KnapsackModels.choco(inst, "Knapsack").model;
+    }
+
+    @Benchmark
+    public int mpSolverTemplate() {
+        try (KnapsackModels.MilpModel m = KnapsackModels.milp(inst)) {
+            return m.solver.numVariables();
+        }
+    }
+
+    @Benchmark
+    public int mpSolverModel() {
+        MPSolver solver = MPSolver.createSolver("CBC_MIXED_INTEGER_PROGRAMMING");
+        try {
+            MPVariable[] x = new MPVariable[inst.n];
+            for (int i = 0; i < inst.n; i++) x[i] = solver.makeIntVar(0.0, 1.0, "x_" + i);
+            MPConstraint capacity = solver.makeConstraint(0.0, inst.capacity, "capacity");
+            for (int i = 0; i < inst.n; i++) capacity.setCoefficient(x[i], inst.weights[i]);
+            MPObjective objective = solver.objective();
+            for (int i = 0; i < inst.n; i++) objective.setCoefficient(x[i], inst.profits[i]);
+            objective.setMaximization();
+            return solver.numVariables();
+        } finally {
+            solver.delete(); // mémoire native : sans ça, chaque itération fuit un modèle entier
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Résolutions complètes des méthodes rapides (glouton, noyau, DP) sur des instances à graine fixe.
+ * La limite de temps passée aux méthodes est large : elle ne doit jamais être atteinte, sinon la mesure n'a pas de sens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolveBenchmark {
+
+    static final long TIME_LIMIT = 60_000;
+
+    @Param({"50", "1000", "10000"})
+    int n;
+
+    @Param({"UNCORRELATED", "WEAKLY_CORRELATED", "STRONGLY_CORRELATED", "INVERSE_STRONGLY_CORRELATED", "SUBSET_SUM"})
+    BenchInstances.Correlation correlation;
+
+    private Instance inst;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        inst = BenchInstances.generate(correlation, n, 42);
+    }
+
+    @Benchmark
+    public Result greedy() {
+        return KnapsackSolver.solveIncompleteGreedy(inst, TIME_LIMIT);
+    }
+
+    @Benchmark
+    public Result core() {
+        return KnapsackSolver.solveCompleteCore(inst, TIME_LIMIT);
+    }
+
+    @Benchmark
+    public Result dp() {
+        return KnapsackSolver.solveCompleteDP(inst, TIME_LIMIT);
+    }
+}
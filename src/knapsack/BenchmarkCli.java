@@ -0,0 +1,323 @@
+package knapsack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Options de la ligne de commande de KnapsackSolver : méthodes, instances, limites de temps, threads, sortie, graine.
+ * Sans argument : sélection par défaut de l'ancien main, 5 minutes par méthode, méthodes de DEFAULT_METHODS.
+ * Un profil (--profile quick|full) fixe des valeurs de départ, que les autres options remplacent.
+ */
+final class BenchmarkCli {
+
+    static final String USAGE = String.join("\n",
+            "Usage : java -jar knapsack-solver.jar [options]",
+            "  --profile quick|full        quick : 1 graine par classe, n <= 100, méthodes rapides, 10 s",
+            "                              full  : tout kplib, toutes les méthodes, 5 min",
+            "  --methods M1,M2,...         méthodes à lancer (--list-methods pour les noms)",
+            "  --kplib DIR                 racine kplib (défaut : kplib, sinon ressource du classpath)",
+            "  --instances GLOB            glob relatif à la racine kplib, répétable",
+            "  --classes C1,C2             préfixes de classes kplib (ex. 00,02StronglyCorrelated)",
+            "  --sizes N1,N2               tailles n retenues",
+            "  --generate CLASSE:N[:K[:R]] K instances générées (graines 0..K-1, plage R) au lieu de kplib, répétable",
+            "                              ex. 02:1000000:3 (classes : préfixe kplib 00 à 12 ou nom, voir InstanceGenerator)",
+            "  --time-limit T              limite par méthode et par instance (ex. 500ms, 30s, 5m)",
+            "  --time-limit METHODE=T      limite propre à une méthode, répétable",
+            "  --threads N                 threads des méthodes lourdes (défaut : cœurs - 1), partagés avec les",
+            "                              threads internes des méthodes parallèles, qui n'en utilisent pas plus",
+            "  --output FICHIER            CSV des résultats (défaut : results.csv)",
+            "  --optima FICHIER            optima connus (défaut : optima.csv)",
+            "  --trace FICHIER             traces de convergence (temps, valeur) de chaque résolution",
+            "  --bnb-memory MO             plafond de la file de Complete_BranchAndBound (défaut : 256), puis profondeur d'abord",
+            "  --cp-portfolio N            copies du modèle (threads) de Complete_CP_Portfolio (défaut : 4)",
+            "  --seed N                    graine des méthodes aléatoires (défaut : aléatoire)",
+            "  --share-incumbent           partage la meilleure solution entre méthodes d'une instance",
+            "  --resume                    complète le CSV existant sans refaire les couples présents",
+            "  --precompute-optima         calcule seulement les optima manquants, puis s'arrête",
+            "  --list-methods, --help",
+            "Chaque méthode existe aussi en variante METHODE_Reduced : objets fixés par dominance et bornes",
+            "de Martello-Toth avant résolution (voir KnapsackReduction).");
+
+    /**
+     * Méthodes lancées sans --methods ni profil : celles de l'ancien main (RatioFirst, DomOverWDeg, MILP, Greedy, LNS),
+     * plus la DP, lancée d'abord comme référence de chaque instance pour le gap, et Core.
+     */
+    static final List<String> DEFAULT_METHODS = List.of(
+            "Complete_DP", "Complete_RatioFirst", "Complete_DomOverWDeg", "Complete_MILP_ORTools", "Complete_Core",
+            "Probabilistic_Greedy", "Incomplete_LNS");
+
+    static final List<String> QUICK_METHODS = List.of(
+            "Complete_DP", "Complete_Core", "Complete_RatioFirst", "Complete_MILP_ORTools",
+            "Probabilistic_Greedy", "Incomplete_LNS");
+
+    static final long DEFAULT_TIME_LIMIT = 5 * 60 * 1000; // 5 minutes
+
+    static class Options {
+        List<String> methods = DEFAULT_METHODS;
+        String kplib = "kplib";
+        List<String> globs = new ArrayList<>();
+        List<String> classes = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        boolean defaultSelection = true; // aucun filtre d'instances donné : sélection historique
+        List<Generated> generate = new ArrayList<>();
+        long timeLimit = DEFAULT_TIME_LIMIT;
+        Map<String, Long> methodTimeLimits = new HashMap<>();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        String output = "results.csv";
+        String optima = OptimumStore.DEFAULT_FILE;
+        String trace;              // null : pas de trace
+        int bnbMemoryMb = BranchAndBound.DEFAULT_MEMORY_MB;
+        int cpPortfolioThreads = KnapsackSolver.CP_PORTFOLIO_THREADS;
+        Long seed;                 // null : graine aléatoire à chaque appel, comme avant
+        boolean shareIncumbent;
+        boolean resume;
+        boolean precomputeOptima;
+
+        long timeLimit(String method) {
+            return methodTimeLimits.getOrDefault(method, timeLimit);
+        }
+    }
+
+    /** Série d'instances générées demandée par --generate. */
+    static class Generated {
+        final InstanceGenerator.Kind kind;
+        final int n;
+        final int count;
+        final int range;
+
+        Generated(InstanceGenerator.Kind kind, int n, int count, int range) {
+            this.kind = kind;
+            this.n = n;
+            this.count = count;
+            this.range = range;
+        }
+
+        static Generated parse(String spec) {
+            String[] parts = spec.split(":");
+            if (parts.length < 2 || parts.length > 4) throw new IllegalArgumentException("--generate attend CLASSE:N[:K[:R]]: " + spec);
+            int n = Integer.parseInt(parts[1]);
+            if (n < 1 || n > InstanceGenerator.MAX_N) throw new IllegalArgumentException("n hors limites dans --generate: " + spec);
+            int count = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+            int range = parts.length > 3 ? Integer.parseInt(parts[3]) : InstanceGenerator.DEFAULT_RANGE;
+            return new Generated(InstanceGenerator.Kind.parse(parts[0]), n, count, range);
+        }
+    }
+
+    private BenchmarkCli() {}
+
+    /**
+     * @return null si le programme doit s'arrêter (aide affichée, ou erreur signalée sur System.err)
+     */
+    static Options parse(String[] args) {
+        Options o = new Options();
+        try {
+            // Le profil d'abord, pour que les autres options le remplacent quel que soit l'ordre
+            for (int i = 0; i < args.length - 1; i++) {
+                if (args[i].equals("--profile")) applyProfile(o, args[i + 1]);
+            }
+            boolean explicitGlobs = false;
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--profile" -> i++;
+                    case "--methods" -> o.methods = splitList(value(args, ++i, arg));
+                    case "--kplib" -> o.kplib = value(args, ++i, arg);
+                    case "--instances" -> {
+                        if (!explicitGlobs) o.globs = new ArrayList<>(); // remplace le glob du profil
+                        explicitGlobs = true;
+                        o.globs.add(value(args, ++i, arg));
+                        o.defaultSelection = false;
+                    }
+                    case "--classes" -> {
+                        o.classes = splitList(value(args, ++i, arg));
+                        o.defaultSelection = false;
+                    }
+                    case "--generate" -> o.generate.add(Generated.parse(value(args, ++i, arg)));
+                    case "--sizes" -> {
+                        o.sizes = new ArrayList<>();
+                        for (String s : splitList(value(args, ++i, arg))) o.sizes.add(Integer.parseInt(s));
+                        o.defaultSelection = false;
+                    }
+                    case "--time-limit" -> {
+                        String v = value(args, ++i, arg);
+                        int eq = v.indexOf('=');
+                        if (eq > 0) o.methodTimeLimits.put(v.substring(0, eq), parseDuration(v.substring(eq + 1)));
+                        else o.timeLimit = parseDuration(v);
+                    }
+                    case "--threads" -> {
+                        o.threads = Integer.parseInt(value(args, ++i, arg));
+                        if (o.threads < 1) throw new IllegalArgumentException("--threads doit être >= 1");
+                    }
+                    case "--output" -> o.output = value(args, ++i, arg);
+                    case "--optima" -> o.optima = value(args, ++i, arg);
+                    case "--trace" -> o.trace = value(args, ++i, arg);
+                    case "--bnb-memory" -> {
+                        o.bnbMemoryMb = Integer.parseInt(value(args, ++i, arg));
+                        if (o.bnbMemoryMb < 1) throw new IllegalArgumentException("--bnb-memory doit être >= 1");
+                    }
+                    case "--cp-portfolio" -> {
+                        o.cpPortfolioThreads = Integer.parseInt(value(args, ++i, arg));
+                        if (o.cpPortfolioThreads < 1) throw new IllegalArgumentException("--cp-portfolio doit être >= 1");
+                    }
+                    case "--seed" -> o.seed = Long.parseLong(value(args, ++i, arg));
+                    case "--share-incumbent" -> o.shareIncumbent = true;
+                    case "--resume" -> o.resume = true;
+                    case "--precompute-optima" -> o.precomputeOptima = true;
+                    case "--list-methods" -> {
+                        System.out.println(String.join("\n", methodRegistry(o).keySet()));
+                        return null;
+                    }
+                    case "--help", "-h" -> {
+                        System.out.println(USAGE);
+                        return null;
+                    }
+                    default -> throw new IllegalArgumentException("Option inconnue: " + arg);
+                }
+            }
+            Map<String, BenchmarkRunner.Method> registry = methodRegistry(o);
+            for (String m : o.methods) {
+                if (!registry.containsKey(m)) throw new IllegalArgumentException("Méthode inconnue: " + m);
+            }
+            for (String m : o.methodTimeLimits.keySet()) {
+                if (!registry.containsKey(m)) throw new IllegalArgumentException("Méthode inconnue dans --time-limit: " + m);
+            }
+        } catch (IllegalArgumentException e) { // NumberFormatException comprise
+            System.err.println("Erreur: " + e.getMessage());
+            System.err.println(USAGE);
+            return null;
+        }
+        return o;
+    }
+
+    private static void applyProfile(Options o, String profile) {
+        switch (profile) {
+            case "quick" -> {
+                o.methods = QUICK_METHODS;
+                o.globs = new ArrayList<>(List.of("*/*/R01000/s000.kp"));
+                o.sizes = new ArrayList<>(List.of(50, 100));
+                o.defaultSelection = false;
+                o.timeLimit = 10_000;
+            }
+            case "full" -> {
+                // Variantes _Reduced seulement sur demande : elles doubleraient la durée du profil
+                o.methods = methodRegistry(o).keySet().stream().filter(m -> !m.endsWith("_Reduced")).toList();
+                o.defaultSelection = false; // aucun filtre : toute l'arborescence
+                o.timeLimit = DEFAULT_TIME_LIMIT;
+            }
+            default -> throw new IllegalArgumentException("Profil inconnu: " + profile + " (quick ou full)");
+        }
+    }
+
+    /** Instances retenues par les options, null si la racine kplib est introuvable. */
+    static KplibLoader selection(Options o) throws java.io.IOException {
+        if (o.defaultSelection) return KnapsackSolver.benchmarkSelection(o.kplib);
+        KplibLoader loader = KplibLoader.locate(o.kplib);
+        if (loader == null) return null;
+        loader.classes(o.classes.toArray(new String[0]));
+        loader.sizes(o.sizes.stream().mapToInt(Integer::intValue).toArray());
+        if (o.globs.size() == 1) {
+            loader.glob(o.globs.get(0));
+        } else if (o.globs.size() > 1) {
+            loader.glob("{" + String.join(",", o.globs) + "}");
+        }
+        return loader;
+    }
+
+    /** Instances de --generate, créées une à une au fil de la consommation du flux (n jusqu'à 10^6). */
+    static Stream<KnapsackSolver.Instance> generated(Options o) {
+        return o.generate.stream().flatMap(g -> LongStream.range(0, g.count)
+                .mapToObj(seed -> InstanceGenerator.generate(g.kind, g.n, g.range, seed)));
+    }
+
+    /**
+     * Toutes les méthodes disponibles, par nom (= Result.method), avec la limite de temps et la graine des options.
+     * La graine est mélangée au nom de l'instance : le résultat ne dépend pas de l'ordre d'exécution.
+     */
+    static Map<String, BenchmarkRunner.Method> methodRegistry(Options o) {
+        Map<String, BenchmarkRunner.Method> m = new LinkedHashMap<>();
+        add(m, o, "Complete_DP", true, KnapsackSolver::solveCompleteDP);
+        add(m, o, "Complete_Core", true, KnapsackSolver::solveCompleteCore);
+        add(m, o, "Complete_BranchAndBound", true, (inst, t, inc) ->
+                KnapsackSolver.solveCompleteBranchAndBound(inst, t, inc, o.bnbMemoryMb));
+        add(m, o, "Complete_BranchAndBound_Parallel", true, o.threads, (inst, t, inc) ->
+                KnapsackSolver.solveCompleteBranchAndBoundParallel(inst, t, inc, o.threads));
+        add(m, o, "Complete_FirstFail", true, (inst, t, inc) -> KnapsackSolver.solveCompleteFirstFail(inst, t));
+        add(m, o, "Complete_RatioFirst", true, KnapsackSolver::solveCompleteRatioFirst);
+        add(m, o, "Complete_DomOverWDeg", true, KnapsackSolver::solveCompleteDomOverWDeg);
+        add(m, o, "Complete_MILP_ORTools", true, KnapsackSolver::solveCompleteMILP_ORTools);
+        add(m, o, "Complete_Portfolio", true, 2, KnapsackSolver::solveCompletePortfolio);
+        int cpThreads = Math.min(o.cpPortfolioThreads, o.threads);
+        add(m, o, "Complete_CP_Portfolio", true, cpThreads, (inst, t, inc) ->
+                KnapsackSolver.solveCompleteCPPortfolio(inst, t, inc, cpThreads, seed(o, inst)));
+        add(m, o, "Probabilistic_Greedy", false, (inst, t, inc) ->
+                KnapsackSolver.solveIncompleteGreedy(inst, t, inc, random(o, inst)));
+        add(m, o, "Probabilistic_Greedy_MultiStart", true, o.threads, (inst, t, inc) ->
+                KnapsackSolver.solveIncompleteGreedyMultiStart(inst, t, Long.MAX_VALUE, o.threads, seed(o, inst), inc));
+        add(m, o, "Incomplete_LNS", true, (inst, t, inc) -> {
+            LnsConfig config = new LnsConfig();
+            config.seed = seed(o, inst);
+            return KnapsackSolver.solveIncompleteLNS(inst, t, config, null, inc);
+        });
+        return m;
+    }
+
+    private static void add(Map<String, BenchmarkRunner.Method> m, Options o, String label, boolean heavy,
+                            BenchmarkRunner.SolveMethod solver) {
+        add(m, o, label, heavy, 1, solver);
+    }
+
+    /** @param threads threads lancés par une résolution, pris sur le budget du pool lourd (BenchmarkRunner.Method) */
+    private static void add(Map<String, BenchmarkRunner.Method> m, Options o, String label, boolean heavy, int threads,
+                            BenchmarkRunner.SolveMethod solver) {
+        // La limite de temps des options remplace celle que passe le runner
+        m.put(label, new BenchmarkRunner.Method(label, (inst, t, inc) -> solver.solve(inst, o.timeLimit(label), inc), heavy, threads));
+        String reduced = label + "_Reduced";
+        BenchmarkRunner.SolveMethod wrapped = KnapsackReduction.wrap(solver, reduced);
+        m.put(reduced, new BenchmarkRunner.Method(reduced, (inst, t, inc) -> wrapped.solve(inst, o.timeLimit(reduced), inc), heavy, threads));
+    }
+
+    private static long seed(Options o, KnapsackSolver.Instance inst) {
+        return o.seed != null ? o.seed ^ inst.name.hashCode() : System.nanoTime();
+    }
+
+    private static Random random(Options o, KnapsackSolver.Instance inst) {
+        return o.seed != null ? new Random(seed(o, inst)) : new Random();
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("Valeur manquante pour " + option);
+        return args[i];
+    }
+
+    private static List<String> splitList(String v) {
+        return Arrays.stream(v.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    /** "500ms", "30s", "5m", "1h" ou un nombre de millisecondes. */
+    static long parseDuration(String v) {
+        String s = v.trim().toLowerCase();
+        long factor = 1;
+        if (s.endsWith("ms")) {
+            s = s.substring(0, s.length() - 2);
+        } else if (s.endsWith("s")) {
+            factor = 1000;
+            s = s.substring(0, s.length() - 1);
+        } else if (s.endsWith("m")) {
+            factor = 60_000;
+            s = s.substring(0, s.length() - 1);
+        } else if (s.endsWith("h")) {
+            factor = 3_600_000;
+            s = s.substring(0, s.length() - 1);
+        }
+        long value = Long.parseLong(s);
+        if (value <= 0) throw new IllegalArgumentException("Durée invalide: " + v);
+        return value * factor;
+    }
+}
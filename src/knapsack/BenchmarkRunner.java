@@ -0,0 +1,195 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Exécute les couples (instance, méthode) d'un benchmark sur deux pools de threads bornés :
+ * un pour les méthodes coûteuses (Choco, CBC) et un pour les méthodes rapides (greedy).
+ * Les méthodes lourdes qui lancent leurs propres threads prennent autant de places du pool lourd (Method.threads) :
+ * la somme des threads actifs ne dépasse jamais heavyThreads, et les temps mesurés ne dépendent pas du voisinage.
+ * Les résultats sont renvoyés dans l'ordre instance puis méthode, comme l'ancienne boucle séquentielle ;
+ * avec un ResultWriter, chacun est aussi écrit dès qu'il est disponible et les couples déjà écrits sont sautés.
+ * En option, les méthodes d'une même instance partagent un Incumbent : les heuristiques y publient leurs solutions
+ * et les méthodes complètes s'en servent comme borne. Désactivé par défaut, car les temps et nœuds mesurés
+ * dépendent alors de l'ordre d'exécution des méthodes.
+ */
+public class BenchmarkRunner {
+
+    /** Même signature que les surcharges solve*(inst, timeLimit, incumbent) de KnapsackSolver ; incumbent peut être null. */
+    interface SolveMethod {
+        Result solve(Instance inst, long timeLimit, Incumbent incumbent);
+    }
+
+    static class Method {
+        final String label;  // même nom que Result.method, pour la reprise via ResultWriter
+        final SolveMethod solver;
+        final boolean heavy; // true : Choco / CBC, limité par heavyThreads
+        final int threads;   // threads utilisés par une résolution, décomptés des heavyThreads (plafonné à ce total)
+
+        Method(String label, SolveMethod solver, boolean heavy) {
+            this(label, solver, heavy, 1);
+        }
+
+        Method(String label, SolveMethod solver, boolean heavy, int threads) {
+            if (threads < 1) throw new IllegalArgumentException("Nombre de threads invalide pour " + label + ": " + threads);
+            this.label = label;
+            this.solver = solver;
+            this.heavy = heavy;
+            this.threads = threads;
+        }
+    }
+
+    private final int heavyThreads;
+    private final int lightThreads;
+    private boolean shareIncumbent;
+    private OptimumStore optima;
+    private TraceWriter traces;
+
+    BenchmarkRunner(int heavyThreads, int lightThreads) {
+        if (heavyThreads < 1 || lightThreads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide: " + heavyThreads + "/" + lightThreads);
+        }
+        this.heavyThreads = heavyThreads;
+        this.lightThreads = lightThreads;
+    }
+
+    /** Un thread par cœur pour les méthodes lourdes (moins un pour le pool léger). */
+    static BenchmarkRunner withDefaultThreads() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new BenchmarkRunner(Math.max(1, cores - 1), 1);
+    }
+
+    /** Active le partage de la meilleure solution entre les méthodes d'une même instance. */
+    BenchmarkRunner withSharedIncumbent(boolean share) {
+        this.shareIncumbent = share;
+        return this;
+    }
+
+    /** Optima connus appliqués à chaque instance avant résolution, complétés par les résultats optimal=true. */
+    BenchmarkRunner withOptimumStore(OptimumStore optima) {
+        this.optima = optima;
+        return this;
+    }
+
+    /** Trace de convergence de chaque résultat, écrite puis retirée du Result pour ne pas la garder en mémoire. */
+    BenchmarkRunner withTraceWriter(TraceWriter traces) {
+        this.traces = traces;
+        return this;
+    }
+
+    List<Result> run(List<Instance> instances, List<Method> methods, long timeLimit) {
+        return run(instances.stream(), null, methods, timeLimit, null);
+    }
+
+    List<Result> run(List<Instance> instances, List<Method> methods, long timeLimit, ResultWriter sink) {
+        return run(instances.stream(), null, methods, timeLimit, sink);
+    }
+
+    /**
+     * Version en flux : les instances sont consommées au fur et à mesure (KplibLoader.stream), au plus
+     * maxPendingInstances() à la fois, si bien que la mémoire reste bornée quel que soit le nombre d'instances.
+     * @param reference méthode lancée en premier sur chaque instance (ex. DP, qui renseigne optimalValue pour le gap),
+     *                  les autres méthodes de l'instance attendent sa fin ; peut être null
+     * @param sink écriture au fil de l'eau (peut être null) ; les couples qu'il contient déjà ne sont pas relancés
+     */
+    List<Result> run(Stream<Instance> instances, Method reference, List<Method> methods, long timeLimit, ResultWriter sink) {
+        ExecutorService heavyPool = Executors.newFixedThreadPool(heavyThreads);
+        ExecutorService lightPool = Executors.newFixedThreadPool(lightThreads);
+        Semaphore heavyPermits = new Semaphore(heavyThreads, true); // équitable : une méthode multi-thread n'attend pas indéfiniment
+        Semaphore pendingInstances = new Semaphore(maxPendingInstances());
+        try {
+            // Soumission dans l'ordre (instance, méthode) : l'ordre des futures fixe celui des résultats
+            List<CompletableFuture<Result>> futures = new ArrayList<>();
+            Iterator<Instance> it = instances.iterator();
+            while (it.hasNext()) {
+                Instance inst = it.next();
+                pendingInstances.acquire();
+                if (sink != null) sink.restore(inst);
+                if (optima != null) optima.apply(inst);
+                Incumbent incumbent = shareIncumbent ? new Incumbent() : null;
+
+                CompletableFuture<Result> first = CompletableFuture.completedFuture(null);
+                if (reference != null && (sink == null || !sink.isDone(inst.name, reference.label))) {
+                    first = submit(inst, reference, timeLimit, incumbent, sink, heavyPool, heavyPermits);
+                    futures.add(first);
+                }
+                List<CompletableFuture<Result>> tasks = new ArrayList<>(methods.size() + 1);
+                tasks.add(first);
+                for (Method m : methods) {
+                    if (sink != null && sink.isDone(inst.name, m.label)) continue;
+                    // Lancée une fois la méthode de référence terminée, même en cas d'échec de celle-ci
+                    CompletableFuture<Result> f = first.handle((r, e) -> null)
+                            .thenCompose(v -> m.heavy
+                                    ? submit(inst, m, timeLimit, incumbent, sink, heavyPool, heavyPermits)
+                                    : submit(inst, m, timeLimit, incumbent, sink, lightPool, null));
+                    futures.add(f);
+                    tasks.add(f);
+                }
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                        .whenComplete((v, e) -> pendingInstances.release());
+            }
+
+            List<Result> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<Result> f : futures) {
+                try {
+                    results.add(f.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                    System.err.println("Erreur de résolution: " + cause);
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Benchmark interrompu", e);
+        } finally {
+            heavyPool.shutdownNow();
+            lightPool.shutdownNow();
+        }
+    }
+
+    /** Instances en cours de résolution au plus : de quoi occuper tous les threads sans tout charger. */
+    int maxPendingInstances() {
+        return 2 * (heavyThreads + lightThreads);
+    }
+
+    /** @param permits places du pool lourd, m.threads en sont pris pendant la résolution ; null pour le pool léger */
+    private CompletableFuture<Result> submit(Instance inst, Method m, long timeLimit, Incumbent incumbent,
+                                             ResultWriter sink, ExecutorService pool, Semaphore permits) {
+        return CompletableFuture.supplyAsync(() -> {
+            int cost = permits == null ? 0 : Math.min(m.threads, heavyThreads);
+            try {
+                if (cost > 0) permits.acquire(cost);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            Result r;
+            try {
+                r = m.solver.solve(inst, timeLimit, incumbent);
+            } finally {
+                if (cost > 0) permits.release(cost);
+            }
+            System.out.println("  - " + inst.name + " / " + m.label + " : Valeur=" + r.bestValue + ", Temps=" + r.timeMs + "ms");
+            if (optima != null) optima.record(inst, r);
+            if (sink != null) sink.write(inst, r);
+            if (traces != null) {
+                traces.write(r);
+                r.trace = null;
+            }
+            return r;
+        }, pool);
+    }
+}
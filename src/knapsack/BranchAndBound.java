@@ -0,0 +1,392 @@
+package knapsack;
+
+import java.util.Arrays;
+
+/**
+ * Branch-and-bound écrit à la main, sans bibliothèque : objets dans l'ordre des ratios, borne U2 de Martello-Toth.
+ *
+ * Hybride meilleur d'abord / profondeur d'abord : on retire de la file le nœud de plus grande borne, puis on plonge
+ * en prenant les objets dans l'ordre (la branche « objet pris » d'abord) ; chaque branche « objet laissé » dont la
+ * borne peut encore battre z est mise dans la file. À chaque nœud, la solution critique (objets suivants pris
+ * tant qu'ils rentrent) est une solution réalisable, comparée à z.
+ *
+ * La file est un tas binaire sur des tableaux primitifs (borne, poids, profit, niveau, historique) et les objets pris
+ * sont retrouvés par un historique parent / objet comme dans CoreKnapsack. Quand la file atteint le plafond mémoire,
+ * la recherche finit en profondeur d'abord : chaque nœud restant de la file est exploré entièrement avec une pile
+ * de taille n au lieu d'ajouter des nœuds.
+ *
+ * Bornes et solution critique en O(log n) par sommes préfixes sur l'ordre des ratios.
+ */
+final class BranchAndBound {
+
+    static final int DEFAULT_MEMORY_MB = 256;
+
+    /** Octets par nœud de la file : borne, poids, profit, niveau, historique, plus une entrée d'historique. */
+    private static final int NODE_BYTES = 3 * 8 + 2 * 4 + 2 * 4;
+
+    static class Outcome {
+        long value;
+        boolean[] taken;      // indices d'origine
+        boolean optimal;
+        long nodes;
+        boolean depthFirst;   // plafond mémoire atteint
+    }
+
+    /** Partage du travail en parallèle : reçoit la branche en attente la moins profonde quand un thread est libre. */
+    interface Donor {
+        boolean wantsWork();
+
+        /** Sous-arbre où les objets 0..level-1 sont décidés par prefix (positions triées). */
+        void donate(int level, long weight, long profit, boolean[] prefix);
+    }
+
+    /** Objets triés par ratio et sommes préfixes, en lecture seule : partagés par les workers de ParallelBranchAndBound. */
+    static final class Items {
+        final int n;
+        final long c;
+        final int[] w;
+        final int[] p;
+        final int[] order;
+        final long[] sw;  // sommes préfixes des poids et profits triés
+        final long[] sp;
+
+        /** @param order ordre par ratio décroissant (KnapsackSolver.orderByRatio) */
+        Items(int[] weights, int[] profits, long capacity, int[] order) {
+            this.n = weights.length;
+            this.c = capacity;
+            this.w = KnapsackBounds.permute(weights, order);
+            this.p = KnapsackBounds.permute(profits, order);
+            this.order = order;
+            this.sw = new long[n + 1];
+            this.sp = new long[n + 1];
+            for (int k = 0; k < n; k++) {
+                sw[k + 1] = sw[k] + w[k];
+                sp[k + 1] = sp[k] + p[k];
+            }
+        }
+
+        /** Plus grand j de [k, n] tel que les objets k..j-1 tiennent dans residual. */
+        int breakFrom(int k, long residual) {
+            int lo = k, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (sw[mid] - sw[k] <= residual) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+
+        long upperBound(int k, long residual, long profit) {
+            return upperBound(k, breakFrom(k, residual), residual, profit);
+        }
+
+        /**
+         * Borne U2 sur les objets k..n-1 (j = objet critique) : objet critique exclu, le reste au ratio de j+1 (U0),
+         * ou inclus en retirant l'excédent au ratio de j-1 (U1). Même calcul que KnapsackBounds.martelloTothU2.
+         */
+        long upperBound(int k, int j, long residual, long profit) {
+            long fill = profit + sp[j] - sp[k];
+            if (j == n) return fill;
+            long left = residual - (sw[j] - sw[k]);
+            long u0 = fill + (j + 1 < n ? left * p[j + 1] / w[j + 1] : 0);
+            if (j == k) return u0; // aucun objet avant j dans le sous-problème : U1 ne s'applique pas
+            long u1 = fill + p[j] - ((w[j] - left) * p[j - 1] + w[j - 1] - 1) / w[j - 1];
+            return Math.max(u0, u1);
+        }
+
+        /** Positions triées vers indices d'origine. */
+        boolean[] original(boolean[] sortedTaken) {
+            boolean[] taken = new boolean[n];
+            for (int k = 0; k < n; k++) taken[order[k]] = sortedTaken[k];
+            return taken;
+        }
+    }
+
+    private final Items items;
+    private final int n;
+    private final long c;
+    private final int[] w;
+    private final int[] p;
+    private final long[] sp;
+    private final long deadline;
+    private final Incumbent incumbent;
+    private final SearchTelemetry telemetry;
+    private final int maxNodes;
+
+    // File de priorité : tas binaire max sur la borne (puis niveau le plus profond), tableaux parallèles
+    private long[] qBound = new long[1024];
+    private long[] qWeight = new long[1024];
+    private long[] qProfit = new long[1024];
+    private int[] qLevel = new int[1024];
+    private int[] qTrail = new int[1024];
+    private int qSize;
+
+    // Historique des objets pris par les nœuds de la file : un parent précède toujours son fils
+    private int[] trailParent = new int[1024];
+    private int[] trailItem = new int[1024];
+    private int trailSize;
+
+    // Exploration du nœud courant : objets pris depuis ce nœud, dont les materialized premiers ont une entrée d'historique
+    private int base;
+    private final int[] path;
+    private final int[] pathTrail;
+    private int pathSize;
+    private int materialized;
+
+    // Pile profondeur d'abord : branches « objet laissé » en attente, niveaux strictement croissants (au plus n + 1)
+    private final int[] sLevel;
+    private final long[] sWeight;
+    private final long[] sProfit;
+    private final int[] sPath;
+    private int sSize;
+
+    private long z;
+    private final boolean[] best; // positions triées
+    private long shared = Long.MIN_VALUE;
+    private long nodes;
+    private boolean stopped;
+    private boolean depthFirst;
+    private Donor donor;
+
+    BranchAndBound(Items items, long deadline, int memoryMb, Incumbent incumbent, SearchTelemetry telemetry) {
+        this.items = items;
+        this.n = items.n;
+        this.c = items.c;
+        this.w = items.w;
+        this.p = items.p;
+        this.sp = items.sp;
+        this.deadline = deadline;
+        this.incumbent = incumbent;
+        this.telemetry = telemetry;
+        this.maxNodes = (int) Math.min(Integer.MAX_VALUE - 8, (long) memoryMb * 1024 * 1024 / NODE_BYTES);
+        this.path = new int[n];
+        this.pathTrail = new int[n];
+        this.sLevel = new int[n + 1];
+        this.sWeight = new long[n + 1];
+        this.sProfit = new long[n + 1];
+        this.sPath = new int[n + 1];
+        this.best = new boolean[n];
+        if (incumbent != null && incumbent.hasValue()) shared = incumbent.value();
+    }
+
+    /**
+     * @param order       ordre par ratio décroissant (KnapsackSolver.orderByRatio)
+     * @param memoryMb    plafond de la file et de l'historique, au-delà la recherche continue en profondeur d'abord
+     * @param incumbent   borne partagée (lue pour élaguer, solutions publiées), ou null
+     * @param telemetry   reçoit chaque solution améliorante, ou null
+     */
+    static Outcome solve(int[] weights, int[] profits, int capacity, int[] order, long deadline, int memoryMb,
+                         Incumbent incumbent, SearchTelemetry telemetry) {
+        Items items = new Items(weights, profits, capacity, order);
+        BranchAndBound bb = new BranchAndBound(items, deadline, memoryMb, incumbent, telemetry);
+
+        bb.enqueue(0, 0, 0, items.upperBound(0, capacity, 0), -1);
+        while (bb.qSize > 0 && !bb.stopped) {
+            // Plus grande borne de la file sous la meilleure valeur : plus rien à trouver
+            if (bb.qBound[0] <= bb.bestKnown()) break;
+            int level = bb.qLevel[0];
+            long weight = bb.qWeight[0], profit = bb.qProfit[0];
+            int trail = bb.qTrail[0];
+            bb.dequeue();
+            bb.explore(level, weight, profit, trail);
+        }
+
+        Outcome out = new Outcome();
+        out.value = bb.z;
+        out.optimal = !bb.stopped;
+        out.nodes = bb.nodes;
+        out.depthFirst = bb.depthFirst;
+        out.taken = items.original(bb.best);
+        return out;
+    }
+
+    /**
+     * Sous-arbre où les objets 0..level-1 sont déjà décidés (prefix, positions triées), entièrement en profondeur
+     * d'abord : utilisé par les workers de ParallelBranchAndBound, construits avec memoryMb = 0.
+     * Le donor, s'il y en a un, peut recevoir une partie des branches en attente.
+     */
+    void exploreSubtree(int level, long weight, long profit, boolean[] prefix, Donor donor) {
+        this.donor = donor;
+        int trail = -1;
+        for (int k = 0; k < level; k++) if (prefix[k]) trail = newTrail(trail, k);
+        explore(level, weight, profit, trail);
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    boolean stopped() {
+        return stopped;
+    }
+
+    /** Explore le sous-arbre du nœud : plongée, branches laissées dans la file ou, en profondeur d'abord, sur la pile. */
+    private void explore(int level, long weight, long profit, int trail) {
+        base = trail;
+        pathSize = 0;
+        materialized = 0;
+        sSize = 0;
+        push(level, weight, profit);
+        while (sSize > 0 && !stopped) {
+            sSize--;
+            pathSize = sPath[sSize];
+            materialized = Math.min(materialized, pathSize);
+            dive(sLevel[sSize], sWeight[sSize], sProfit[sSize]);
+        }
+    }
+
+    private void dive(int k, long weight, long profit) {
+        while (true) {
+            if ((++nodes & 1023) == 0 && checkpoint()) return;
+            long residual = c - weight;
+            int j = items.breakFrom(k, residual);
+            long fill = profit + sp[j] - sp[k];
+            if (fill > bestKnown()) improve(fill, k, j);
+            if (j == n) return; // tout ce qui reste rentre : solution critique optimale dans ce sous-arbre
+            if (items.upperBound(k, j, residual, profit) <= bestKnown()) return;
+            if (k == j) { // l'objet k ne rentre pas
+                k++;
+                continue;
+            }
+            long without = items.upperBound(k + 1, residual, profit);
+            if (without > bestKnown()) defer(k + 1, weight, profit, without);
+            path[pathSize++] = k;
+            weight += w[k];
+            profit += p[k];
+            k++;
+        }
+    }
+
+    /** Branche « objet laissé » : dans la file tant qu'il reste de la place, sinon sur la pile. */
+    private void defer(int level, long weight, long profit, long bound) {
+        if (!depthFirst && (qSize >= maxNodes || trailSize + n > maxNodes)) depthFirst = true;
+        if (depthFirst) {
+            push(level, weight, profit);
+        } else {
+            enqueue(level, weight, profit, bound, materialize());
+        }
+    }
+
+    private void push(int level, long weight, long profit) {
+        sLevel[sSize] = level;
+        sWeight[sSize] = weight;
+        sProfit[sSize] = profit;
+        sPath[sSize] = pathSize;
+        sSize++;
+    }
+
+    /** Entrées d'historique des objets pris depuis le début de l'exploration, créées une seule fois. */
+    private int materialize() {
+        for (; materialized < pathSize; materialized++) {
+            int parent = materialized == 0 ? base : pathTrail[materialized - 1];
+            pathTrail[materialized] = newTrail(parent, path[materialized]);
+        }
+        return pathSize == 0 ? base : pathTrail[pathSize - 1];
+    }
+
+    /** Nouvelle meilleure solution : historique du nœud, objets pris pendant la plongée, puis objets k..j-1. */
+    private void improve(long value, int k, int j) {
+        z = value;
+        Arrays.fill(best, false);
+        for (int id = base; id >= 0; id = trailParent[id]) best[trailItem[id]] = true;
+        for (int i = 0; i < pathSize; i++) best[path[i]] = true;
+        for (int i = k; i < j; i++) best[i] = true;
+        if (telemetry != null) telemetry.solution(value);
+        if (incumbent != null) incumbent.offer(value, items.original(best));
+    }
+
+    /** Toutes les 1024 nœuds : limite de temps, fermeture et valeur de l'incumbent partagé, partage du travail. */
+    private boolean checkpoint() {
+        if (System.currentTimeMillis() > deadline) stopped = true;
+        if (incumbent != null) {
+            if (incumbent.isClosed()) stopped = true;
+            if (incumbent.hasValue()) shared = incumbent.value();
+        }
+        if (!stopped && donor != null && sSize > 0 && donor.wantsWork()) donate();
+        return stopped;
+    }
+
+    /** Cède le bas de la pile (plus petit niveau, donc plus gros sous-arbre) ; les autres entrées n'en dépendent pas. */
+    private void donate() {
+        int level = sLevel[0];
+        boolean[] prefix = new boolean[level];
+        for (int id = base; id >= 0; id = trailParent[id]) prefix[trailItem[id]] = true;
+        for (int i = 0; i < sPath[0]; i++) prefix[path[i]] = true;
+        donor.donate(level, sWeight[0], sProfit[0], prefix);
+
+        sSize--;
+        System.arraycopy(sLevel, 1, sLevel, 0, sSize);
+        System.arraycopy(sWeight, 1, sWeight, 0, sSize);
+        System.arraycopy(sProfit, 1, sProfit, 0, sSize);
+        System.arraycopy(sPath, 1, sPath, 0, sSize);
+    }
+
+    private long bestKnown() {
+        return Math.max(z, shared);
+    }
+
+    // ===================== Tas binaire =====================
+    private void enqueue(int level, long weight, long profit, long bound, int trail) {
+        if (qSize == qBound.length) {
+            int cap = (int) Math.min((long) qSize * 2, maxNodes + 1L);
+            qBound = Arrays.copyOf(qBound, cap);
+            qWeight = Arrays.copyOf(qWeight, cap);
+            qProfit = Arrays.copyOf(qProfit, cap);
+            qLevel = Arrays.copyOf(qLevel, cap);
+            qTrail = Arrays.copyOf(qTrail, cap);
+        }
+        int i = qSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(bound, level, qBound[parent], qLevel[parent])) break;
+            move(parent, i);
+            i = parent;
+        }
+        set(i, level, weight, profit, bound, trail);
+    }
+
+    /** Retire la racine du tas. */
+    private void dequeue() {
+        int last = --qSize;
+        if (last == 0) return;
+        long bound = qBound[last];
+        int level = qLevel[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) break;
+            if (child + 1 < last && before(qBound[child + 1], qLevel[child + 1], qBound[child], qLevel[child])) child++;
+            if (!before(qBound[child], qLevel[child], bound, level)) break;
+            move(child, i);
+            i = child;
+        }
+        set(i, level, qWeight[last], qProfit[last], bound, qTrail[last]);
+    }
+
+    /** Ordre du tas : plus grande borne, puis nœud le plus profond (plus proche d'une solution). */
+    private static boolean before(long boundA, int levelA, long boundB, int levelB) {
+        return boundA > boundB || (boundA == boundB && levelA > levelB);
+    }
+
+    private void move(int from, int to) {
+        set(to, qLevel[from], qWeight[from], qProfit[from], qBound[from], qTrail[from]);
+    }
+
+    private void set(int i, int level, long weight, long profit, long bound, int trail) {
+        qLevel[i] = level;
+        qWeight[i] = weight;
+        qProfit[i] = profit;
+        qBound[i] = bound;
+        qTrail[i] = trail;
+    }
+
+    private int newTrail(int parent, int item) {
+        if (trailSize == trailParent.length) {
+            trailParent = Arrays.copyOf(trailParent, trailSize * 2);
+            trailItem = Arrays.copyOf(trailItem, trailSize * 2);
+        }
+        trailParent[trailSize] = parent;
+        trailItem[trailSize] = item;
+        return trailSize++;
+    }
+}
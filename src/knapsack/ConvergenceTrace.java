@@ -0,0 +1,41 @@
+package knapsack;
+
+import java.util.Arrays;
+
+/**
+ * Profil anytime d'une résolution : (temps depuis le début de la recherche, valeur) pour chaque solution améliorante.
+ * Deux tableaux primitifs agrandis au besoin : une recherche Choco peut trouver des milliers de solutions.
+ */
+final class ConvergenceTrace {
+
+    private long[] timeMs = new long[16];
+    private long[] values = new long[16];
+    private int size;
+
+    void add(long time, long value) {
+        if (size == timeMs.length) {
+            timeMs = Arrays.copyOf(timeMs, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+        }
+        timeMs[size] = time;
+        values[size] = value;
+        size++;
+    }
+
+    /** Décale toutes les valeurs, ex. profit des objets fixés par KnapsackReduction. */
+    void offset(long delta) {
+        for (int i = 0; i < size; i++) values[i] += delta;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long timeMs(int i) {
+        return timeMs[i];
+    }
+
+    long value(int i) {
+        return values[i];
+    }
+}
@@ -0,0 +1,253 @@
+package knapsack;
+
+import java.util.Arrays;
+
+/**
+ * Algorithme à noyau extensible de Pisinger (minknap).
+ * Les objets sont triés par ratio décroissant et on part de la solution de l'objet critique b
+ * (tous les objets avant b sont pris). Le noyau [s, t] est élargi alternativement à droite (objet t ajouté ou non)
+ * et à gauche (objet s retiré ou non) ; les solutions partielles sont gardées sous forme d'états (poids, profit)
+ * triés par poids, sans états dominés. Un état est supprimé dès que sa borne de Dembo-Hammer
+ * (ratio de l'objet suivant au bord du noyau) ne dépasse pas la meilleure valeur connue.
+ * Les objets hors noyau qui échouent au test de réduction gardent leur valeur de la solution critique.
+ * La recherche s'arrête quand il ne reste plus d'état, ou dès que la borne U2 de Martello-Toth est atteinte.
+ */
+final class CoreKnapsack {
+
+    static class Outcome {
+        long value;
+        boolean[] taken;   // indices d'origine
+        boolean optimal;
+        long nodes;        // nombre total d'états créés
+        int coreSize;      // nombre d'objets réellement entrés dans le noyau
+    }
+
+    private final int n;
+    private final long c;
+    private final int[] w;
+    private final int[] p;
+
+    // États courants, triés par poids croissant et profit strictement croissant
+    private long[] sw, sp;
+    private int[] st;       // dernier nœud de l'historique de chaque état
+    private int m;
+    private long[] nw, np;  // tampons de fusion
+    private int[] nt;
+
+    // Historique : chaque nœud bascule un objet (position triée) par rapport à son parent
+    private int[] trailParent = new int[1024];
+    private int[] trailItem = new int[1024];
+    private int trailSize;
+
+    private long z;
+    private int zTrail = -1;
+    private long nodes;
+    private int coreSize;
+
+    private CoreKnapsack(int[] w, int[] p, long capacity) {
+        this.n = w.length;
+        this.c = capacity;
+        this.w = w;
+        this.p = p;
+        sw = new long[16]; sp = new long[16]; st = new int[16];
+        nw = new long[16]; np = new long[16]; nt = new int[16];
+    }
+
+    /**
+     * @param order ordre par ratio décroissant (KnapsackSolver.orderByRatio)
+     */
+    static Outcome solve(int[] weights, int[] profits, int capacity, int[] order, long deadline) {
+        int[] w = KnapsackBounds.permute(weights, order);
+        int[] p = KnapsackBounds.permute(profits, order);
+        CoreKnapsack core = new CoreKnapsack(w, p, capacity);
+        long upperBound = KnapsackBounds.martelloTothU2(w, p, capacity);
+
+        int b = KnapsackBounds.breakItem(w, capacity);
+        long ps = 0, ws = 0;
+        for (int k = 0; k < b; k++) {
+            ps += p[k];
+            ws += w[k];
+        }
+        // Valeur initiale : solution critique complétée gloutonnement par les objets après b qui rentrent encore
+        core.z = ps;
+        long wg = ws;
+        for (int k = b + 1; k < core.n; k++) {
+            if (wg + w[k] <= capacity) {
+                wg += w[k];
+                core.z += p[k];
+                core.zTrail = core.newTrail(core.zTrail, k);
+            }
+        }
+        core.sw[0] = ws;
+        core.sp[0] = ps;
+        core.st[0] = -1;
+        core.m = 1;
+
+        int s = b - 1, t = b; // prochains objets à retirer / ajouter
+        boolean stopped = false;
+        while (core.m > 0 && core.z < upperBound && (s >= 0 || t < core.n)) {
+            if (System.currentTimeMillis() > deadline) {
+                stopped = true;
+                break;
+            }
+            if (t < core.n) {
+                if (core.mayImprove(t, +1, b, ps, ws)) {
+                    core.expand(t, +1);
+                    core.reduce(s, t + 1);
+                }
+                t++;
+            }
+            if (s >= 0 && core.m > 0) {
+                if (core.mayImprove(s, -1, b, ps, ws)) {
+                    core.expand(s, -1);
+                    core.reduce(s - 1, t);
+                }
+                s--;
+            }
+        }
+
+        Outcome out = new Outcome();
+        out.value = core.z;
+        out.optimal = !stopped;
+        out.nodes = core.nodes;
+        out.coreSize = core.coreSize;
+
+        // Solution = solution critique, puis bascule des objets de l'historique du meilleur état
+        boolean[] sortedTaken = new boolean[w.length];
+        for (int k = 0; k < b; k++) sortedTaken[k] = true;
+        for (int id = core.zTrail; id >= 0; id = core.trailParent[id]) {
+            int k = core.trailItem[id];
+            sortedTaken[k] = !sortedTaken[k];
+        }
+        out.taken = new boolean[w.length];
+        for (int k = 0; k < w.length; k++) out.taken[order[k]] = sortedTaken[k];
+        return out;
+    }
+
+    /**
+     * Ajoute (sign = +1) ou retire (sign = -1) l'objet k dans chaque état, puis fusionne les deux listes
+     * en éliminant les états dominés (poids supérieur ou égal pour un profit inférieur ou égal).
+     */
+    private void expand(int k, int sign) {
+        long dw = sign * (long) w[k];
+        long dp = sign * (long) p[k];
+        ensureBuffers(2 * m);
+        coreSize++;
+
+        int i = 0, j = 0, out = 0;
+        while (i < m || j < m) {
+            long aw = i < m ? sw[i] : Long.MAX_VALUE;
+            long bw = j < m ? sw[j] + dw : Long.MAX_VALUE;
+            long cw, cp;
+            int ct;
+            boolean changed;
+            if (aw <= bw) {
+                cw = aw; cp = sp[i]; ct = st[i]; changed = false;
+                i++;
+            } else {
+                cw = bw; cp = sp[j] + dp; ct = st[j]; changed = true;
+                j++;
+            }
+            if (out > 0 && cp <= np[out - 1]) continue; // dominé par un état plus léger
+            if (out > 0 && cw == nw[out - 1]) out--;     // même poids, meilleur profit
+            nw[out] = cw;
+            np[out] = cp;
+            nt[out] = changed ? newTrail(ct, k) : ct;
+            out++;
+        }
+        nodes += out;
+
+        long[] tw = sw; sw = nw; nw = tw;
+        long[] tp = sp; sp = np; np = tp;
+        int[] tt = st; st = nt; nt = tt;
+        m = out;
+    }
+
+    /**
+     * Test de réduction : borne de Dembo-Hammer de la solution critique (pb, wb) quand l'objet k change d'état.
+     * Si elle ne dépasse pas z, l'objet garde sa valeur de la solution critique et n'entre pas dans le noyau.
+     */
+    private boolean mayImprove(int k, int sign, int b, long pb, long wb) {
+        if (b >= n) return true;
+        long ps = pb + sign * (long) p[k];
+        long ws = wb + sign * (long) w[k];
+        // ps + (c - ws) * p[b] / w[b] >= z + 1
+        return (c - ws) * p[b] >= (z + 1 - ps) * w[b];
+    }
+
+    /** Met à jour la meilleure valeur puis supprime les états dont la borne ne peut pas l'améliorer. */
+    private void reduce(int s, int t) {
+        for (int i = 0; i < m && sw[i] <= c; i++) {
+            if (sp[i] > z) {
+                z = sp[i];
+                zTrail = st[i];
+            }
+        }
+
+        int out = 0;
+        for (int i = 0; i < m; i++) {
+            long ws = sw[i], ps = sp[i];
+            boolean keep;
+            if (ws <= c) {
+                // Dembo-Hammer : ps + (c - ws) * p[t] / w[t] >= z + 1
+                keep = t < n ? (c - ws) * p[t] >= (z + 1 - ps) * w[t] : ps > z;
+            } else {
+                // Trop lourd : il faut retirer au moins ws - c au ratio de l'objet s
+                keep = s >= 0 && (c - ws) * p[s] >= (z + 1 - ps) * w[s];
+            }
+            if (keep) {
+                sw[out] = ws;
+                sp[out] = ps;
+                st[out] = st[i];
+                out++;
+            }
+        }
+        m = out;
+
+        if (trailSize > Math.max(1 << 20, 8 * m)) compactTrail();
+    }
+
+    private int newTrail(int parent, int item) {
+        if (trailSize == trailParent.length) {
+            trailParent = Arrays.copyOf(trailParent, trailSize * 2);
+            trailItem = Arrays.copyOf(trailItem, trailSize * 2);
+        }
+        trailParent[trailSize] = parent;
+        trailItem[trailSize] = item;
+        return trailSize++;
+    }
+
+    /** Supprime les nœuds d'historique qui ne mènent plus à aucun état vivant (un parent précède toujours son fils). */
+    private void compactTrail() {
+        boolean[] alive = new boolean[trailSize];
+        for (int i = 0; i < m; i++) if (st[i] >= 0) alive[st[i]] = true;
+        if (zTrail >= 0) alive[zTrail] = true;
+        for (int id = trailSize - 1; id >= 0; id--) {
+            if (alive[id] && trailParent[id] >= 0) alive[trailParent[id]] = true;
+        }
+
+        int[] remap = new int[trailSize];
+        int size = 0;
+        for (int id = 0; id < trailSize; id++) {
+            if (!alive[id]) continue;
+            int parent = trailParent[id];
+            trailParent[size] = parent >= 0 ? remap[parent] : -1;
+            trailItem[size] = trailItem[id];
+            remap[id] = size++;
+        }
+        for (int i = 0; i < m; i++) if (st[i] >= 0) st[i] = remap[st[i]];
+        if (zTrail >= 0) zTrail = remap[zTrail];
+        trailSize = size;
+    }
+
+    private void ensureBuffers(int size) {
+        if (nw.length >= size) return;
+        int cap = Math.max(size, nw.length * 2);
+        nw = new long[cap];
+        np = new long[cap];
+        nt = new int[cap];
+        sw = Arrays.copyOf(sw, cap);
+        sp = Arrays.copyOf(sp, cap);
+        st = Arrays.copyOf(st, cap);
+    }
+}
@@ -0,0 +1,206 @@
+package knapsack;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * Borne de Dantzig sur le profit, tenue à jour objet par objet au lieu d'être recalculée à chaque nœud
+ * (PropKnapsack et PropKnapsackKatriel01 de la contrainte knapsack repartent de tous les objets).
+ *
+ * Objets dans l'ordre des ratios ; état restauré au retour arrière (IState*) :
+ * - poids et profit des objets fixés à 1 ;
+ * - pointeur b sur l'objet critique, avec poids et profit des objets libres avant b, qui tiennent dans la capacité résiduelle.
+ * Un objet fixé à 0 avant b libère de la place : b avance. Un objet fixé à 1 après b consomme de la place : b recule.
+ * Avec la recherche RatioFirst, qui fixe les objets dans l'ordre des ratios, b ne fait qu'avancer : O(1) amorti par objet.
+ *
+ * Filtrage : maximum du profit (borne < meilleure solution + 1 : échec), puis, une fois par point fixe,
+ * fixation des objets libres par les tests de Dembo-Hammer (fixItems), en O(objets libres) au lieu du
+ * filtrage de Katriel. Les sommes pondérées du poids et du profit restent posées à part (scalar).
+ */
+final class DantzigBoundPropagator extends Propagator<IntVar> {
+
+    private final int n;
+    private final int[] w;           // poids et profits dans l'ordre des ratios
+    private final int[] p;
+    private final long capacity;
+    private final IntVar profit;
+
+    private final IStateBitSet seen; // objets fixés dont l'événement est déjà compté
+    private final IStateLong fixedWeight;
+    private final IStateLong fixedProfit;
+    private final IStateInt breakItem;
+    private final IStateLong freeWeight;  // objets libres avant breakItem
+    private final IStateLong freeProfit;
+
+    /**
+     * @param x     variables des objets, indices de l'instance
+     * @param order ordre des ratios (KnapsackSolver.orderByRatio)
+     */
+    DantzigBoundPropagator(BoolVar[] x, int[] weights, int[] profits, int[] order, long capacity, IntVar profit) {
+        super(ArrayUtils.append(sorted(x, order), new IntVar[]{profit}), PropagatorPriority.LINEAR, true);
+        this.n = x.length;
+        this.w = KnapsackBounds.permute(weights, order);
+        this.p = KnapsackBounds.permute(profits, order);
+        this.capacity = capacity;
+        this.profit = profit;
+        IEnvironment env = x.length > 0 ? x[0].getModel().getEnvironment() : profit.getModel().getEnvironment();
+        this.seen = env.makeBitSet(n);
+        this.fixedWeight = env.makeLong(0);
+        this.fixedProfit = env.makeLong(0);
+        this.breakItem = env.makeInt(0);
+        this.freeWeight = env.makeLong(0);
+        this.freeProfit = env.makeLong(0);
+    }
+
+    private static IntVar[] sorted(BoolVar[] x, int[] order) {
+        IntVar[] vars = new IntVar[x.length];
+        for (int k = 0; k < order.length; k++) vars[k] = x[order[k]];
+        return vars;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        // Le profit n'est pas écouté : une borne inférieure trop haute échoue déjà sur updateUpperBound
+        return vIdx < n ? IntEventType.instantiation() : IntEventType.VOID.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            // Propagation initiale : tout est recalculé
+            long weight = 0, value = 0;
+            for (int k = 0; k < n; k++) {
+                if (vars[k].isInstantiated()) {
+                    seen.set(k);
+                    if (vars[k].getValue() == 1) {
+                        weight += w[k];
+                        value += p[k];
+                    }
+                } else {
+                    seen.clear(k);
+                }
+            }
+            fixedWeight.set(weight);
+            fixedProfit.set(value);
+            breakItem.set(0);
+            freeWeight.set(0);
+            freeProfit.set(0);
+        }
+        fixItems(bound());
+    }
+
+    @Override
+    public void propagate(int k, int mask) throws ContradictionException {
+        if (k >= n || seen.get(k)) return;
+        account(k);
+        bound();
+        // Tests sur les objets libres une seule fois, après tous les événements du point fixe
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /** Objet k fixé : mise à jour des sommes et du pointeur critique. */
+    private void account(int k) {
+        seen.set(k);
+        boolean before = k < breakItem.get();
+        if (vars[k].getValue() == 1) {
+            fixedWeight.set(fixedWeight.get() + w[k]);
+            fixedProfit.set(fixedProfit.get() + p[k]);
+            if (before) {
+                // Déjà compté comme libre : la capacité résiduelle baisse d'autant, b ne bouge pas
+                freeWeight.set(freeWeight.get() - w[k]);
+                freeProfit.set(freeProfit.get() - p[k]);
+            } else {
+                retreat();
+            }
+        } else if (before) {
+            freeWeight.set(freeWeight.get() - w[k]);
+            freeProfit.set(freeProfit.get() - p[k]);
+        }
+    }
+
+    /** Recule b tant que les objets libres avant b dépassent la capacité résiduelle. */
+    private void retreat() {
+        long residual = capacity - fixedWeight.get();
+        int b = breakItem.get();
+        long weight = freeWeight.get(), value = freeProfit.get();
+        while (weight > residual && b > 0) {
+            b--;
+            if (!seen.get(b)) {
+                weight -= w[b];
+                value -= p[b];
+            }
+        }
+        breakItem.set(b);
+        freeWeight.set(weight);
+        freeProfit.set(value);
+    }
+
+    /** Avance b jusqu'à l'objet critique et applique la borne de Dantzig au profit. */
+    private long bound() throws ContradictionException {
+        long residual = capacity - fixedWeight.get();
+        if (residual < 0) fails();
+        int b = breakItem.get();
+        long weight = freeWeight.get(), value = freeProfit.get();
+        // Les objets fixés sont sautés d'un coup (nextClearBit)
+        while ((b = Math.min(n, seen.nextClearBit(b))) < n && weight + w[b] <= residual) {
+            weight += w[b];
+            value += p[b];
+            b++;
+        }
+        breakItem.set(b);
+        freeWeight.set(weight);
+        freeProfit.set(value);
+
+        long bound = fixedProfit.get() + value + (b < n ? (residual - weight) * p[b] / w[b] : 0);
+        profit.updateUpperBound((int) Math.min(Integer.MAX_VALUE, bound), this);
+        return bound;
+    }
+
+    /**
+     * Tests de Dembo-Hammer contre le minimum du profit (meilleure solution + 1 pendant l'optimisation) :
+     * la borne de Dantzig est concave en la capacité, de pente r_b = p_b / w_b à l'objet critique, donc
+     * prendre un objet j après b coûte au moins w_j r_b - p_j, retirer un objet j avant b au moins p_j - w_j r_b.
+     * Si ce coût dépasse la marge U + 1 - min, x_j est fixé à la valeur de la relaxation.
+     * Ces fixations ne changent pas la borne : un seul passage suffit.
+     */
+    private void fixItems(long bound) throws ContradictionException {
+        int b = breakItem.get();
+        if (b >= n) return;
+        long gap = bound + 1 - profit.getLB();
+        long wb = w[b], pb = p[b];
+        long threshold = gap * wb;
+        for (int j = seen.nextClearBit(0); j < n; j = seen.nextClearBit(j + 1)) {
+            if (j == b) continue;
+            long cost = j < b ? p[j] * wb - w[j] * pb : w[j] * pb - p[j] * wb;
+            if (cost >= threshold) {
+                vars[j].instantiateTo(j < b ? 1 : 0, this); // pas d'événement renvoyé à la cause : compté ici
+                account(j);
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        long weight = 0, value = 0;
+        for (int k = 0; k < n; k++) {
+            if (!vars[k].isInstantiated()) return ESat.UNDEFINED;
+            if (vars[k].getValue() == 1) {
+                weight += w[k];
+                value += p[k];
+            }
+        }
+        if (!profit.isInstantiated()) return ESat.UNDEFINED;
+        return ESat.eval(weight <= capacity && value >= profit.getValue());
+    }
+}
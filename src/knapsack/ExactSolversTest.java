@@ -0,0 +1,74 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vérification croisée des méthodes exactes, à lancer à la main (pas de JUnit, comme ManualInstancesTest) :
+ * sur des instances InstanceGenerator de toutes les classes, la valeur de chaque méthode est comparée à celle de
+ * KnapsackDP, y compris en variante _Reduced (KnapsackReduction). Une erreur est une valeur au-dessus de la DP
+ * ou un optimum annoncé différent ; une limite de temps atteinte est seulement comptée comme non prouvée.
+ *
+ * Arguments (optionnels) : nombre de graines par classe et par taille (défaut 10), puis --choco pour
+ * ajouter RatioFirst et DomOverWDeg (plus lents). Code de sortie 1 s'il y a au moins une erreur.
+ */
+public class ExactSolversTest {
+
+    private static final int[] SIZES = {20, 50}; // au-delà, les classes corrélées dépassent vite la limite en B&B
+    private static final int RANGE = 1000;
+    private static final long TIME_LIMIT = 5_000;
+
+    public static void main(String[] args) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        boolean choco = args.length > 1 && args[1].equals("--choco");
+
+        Map<String, BenchmarkRunner.SolveMethod> methods = new LinkedHashMap<>();
+        methods.put("Complete_Core", KnapsackSolver::solveCompleteCore);
+        methods.put("Complete_BranchAndBound", (inst, t, inc) ->
+                KnapsackSolver.solveCompleteBranchAndBound(inst, t, inc, BranchAndBound.DEFAULT_MEMORY_MB));
+        // Sans mémoire pour la file : toute la recherche passe par la profondeur d'abord de secours
+        methods.put("Complete_BranchAndBound_DFS", (inst, t, inc) ->
+                KnapsackSolver.solveCompleteBranchAndBound(inst, t, inc, 0));
+        methods.put("Complete_BranchAndBound_Parallel", (inst, t, inc) ->
+                KnapsackSolver.solveCompleteBranchAndBoundParallel(inst, t, inc, 4));
+        if (choco) {
+            methods.put("Complete_RatioFirst", KnapsackSolver::solveCompleteRatioFirst);
+            methods.put("Complete_DomOverWDeg", KnapsackSolver::solveCompleteDomOverWDeg);
+        }
+        for (String label : methods.keySet().toArray(new String[0])) {
+            methods.put(label + "_Reduced", KnapsackReduction.wrap(methods.get(label), label + "_Reduced"));
+        }
+
+        int checked = 0, failures = 0, unproved = 0;
+        for (InstanceGenerator.Kind kind : InstanceGenerator.Kind.values()) {
+            for (int n : SIZES) {
+                for (long seed = 0; seed < seeds; seed++) {
+                    Instance reference = InstanceGenerator.generate(kind, n, RANGE, seed);
+                    long expected = KnapsackDP.solve(reference.weights, reference.profits, reference.capacity,
+                            Long.MAX_VALUE).value;
+
+                    for (Map.Entry<String, BenchmarkRunner.SolveMethod> e : methods.entrySet()) {
+                        // Instance neuve : les solveurs renseignent optimalValue
+                        Instance inst = InstanceGenerator.generate(kind, n, RANGE, seed);
+                        Result r = e.getValue().solve(inst, TIME_LIMIT, null);
+                        checked++;
+                        if (r.bestValue > expected || (r.optimal && r.bestValue != expected)) {
+                            failures++;
+                            System.out.printf("ERREUR %s / %s : valeur=%d (optimal=%b), DP=%d%n",
+                                    inst.name, e.getKey(), r.bestValue, r.optimal, expected);
+                        } else if (!r.optimal) {
+                            unproved++;
+                        }
+                    }
+                }
+            }
+            System.out.printf("%s : %d vérifications, %d erreurs, %d non prouvées%n", kind, checked, failures, unproved);
+        }
+
+        System.out.println(failures == 0 ? "OK" : failures + " erreurs sur " + checked);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,76 @@
+package knapsack;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Meilleure solution connue pour une instance, partagée entre les méthodes lancées en parallèle.
+ * Les heuristiques et les solveurs y publient leurs solutions, les méthodes complètes y lisent la borne à dépasser ;
+ * close() signale qu'une méthode a prouvé l'optimalité et que les autres peuvent s'arrêter.
+ * Sans verrou : la valeur et la solution forment un instantané immuable remplacé par compareAndSet.
+ */
+final class Incumbent {
+
+    private static final class Snapshot {
+        final long value;
+        final boolean[] taken; // null si la méthode n'a pas reconstruit la solution
+
+        Snapshot(long value, boolean[] taken) {
+            this.value = value;
+            this.taken = taken;
+        }
+    }
+
+    private static final Snapshot NONE = new Snapshot(Long.MIN_VALUE, null);
+
+    private final AtomicReference<Snapshot> best = new AtomicReference<>(NONE);
+    private volatile boolean closed;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Propose une solution réalisable ; renvoie true si elle améliore la meilleure connue.
+     * @param taken objets pris (copié), ou null si seule la valeur est connue
+     */
+    boolean offer(long candidate, boolean[] taken) {
+        Snapshot current = best.get();
+        if (candidate <= current.value) return false;
+        Snapshot next = new Snapshot(candidate, taken == null ? null : taken.clone());
+        while (!best.compareAndSet(current, next)) {
+            current = best.get();
+            if (candidate <= current.value) return false;
+        }
+        return true;
+    }
+
+    boolean hasValue() {
+        return best.get() != NONE;
+    }
+
+    long value() {
+        return best.get().value;
+    }
+
+    /** Copie de la meilleure solution, null si aucune solution complète n'a été publiée. */
+    boolean[] solution() {
+        boolean[] taken = best.get().taken;
+        return taken == null ? null : taken.clone();
+    }
+
+    /** Optimalité prouvée : arrête les autres méthodes (critères d'arrêt Choco, interruption CBC). */
+    void close() {
+        if (closed) return;
+        closed = true;
+        for (Runnable listener : closeListeners) listener.run();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /** Action exécutée à la fermeture (immédiatement si c'est déjà fait). */
+    void onClose(Runnable listener) {
+        closeListeners.add(listener);
+        if (closed) listener.run();
+    }
+}
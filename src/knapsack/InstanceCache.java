@@ -0,0 +1,162 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Cache binaire des instances, pour ne pas relire le texte des .kp à chaque exécution.
+ * Un fichier .kpb par fichier source, nommé d'après un hachage de son chemin absolu ; l'en-tête garde la date
+ * de modification et la taille de la source, un .kp modifié est donc relu puis réécrit dans le cache.
+ *
+ * Format (little-endian) : magic, version, mtime, taille de la source, n, capacité,
+ * nom et difficulté (longueur sur 2 octets + UTF-8), alignement sur 4 octets, puis profits[n] et poids[n].
+ * La lecture projette le fichier en mémoire et copie les tableaux d'un bloc.
+ */
+final class InstanceCache {
+
+    static final String DEFAULT_DIR = ".kpcache";
+
+    private static final int MAGIC = 0x4B504231; // "KPB1"
+    private static final int VERSION = 1;
+
+    /** Dossier du cache, null pour le désactiver. */
+    private static volatile Path directory = Path.of(DEFAULT_DIR);
+
+    private InstanceCache() {}
+
+    static void setDirectory(Path dir) {
+        directory = dir;
+    }
+
+    static Path directory() {
+        return directory;
+    }
+
+    /**
+     * Instance en cache pour ce fichier source, si elle est à jour.
+     * @return null si absente, périmée ou illisible (elle sera réécrite par store)
+     */
+    static Instance lookup(Path source, String name, String difficulty) {
+        Path dir = directory;
+        if (dir == null || source.getFileSystem() != FileSystems.getDefault()) return null;
+        try {
+            Path entry = entryFor(dir, source);
+            if (!Files.isRegularFile(entry)) return null;
+            BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+            Instance inst = read(entry, attrs.lastModifiedTime().toMillis(), attrs.size());
+            if (inst == null) return null;
+            // Nom et difficulté dépendent de l'appelant (racine kplib, sélection) : ceux du cache ne servent qu'à load()
+            inst.name = name;
+            inst.difficulty = difficulty;
+            return inst;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Écrit l'instance dans le cache ; une erreur d'écriture n'empêche pas la suite, elle est seulement signalée. */
+    static void store(Path source, Instance inst) {
+        Path dir = directory;
+        if (dir == null || source.getFileSystem() != FileSystems.getDefault()) return;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+            Files.createDirectories(dir);
+            Path entry = entryFor(dir, source);
+            // Écriture dans un fichier temporaire puis renommage : un lecteur concurrent ne voit jamais un fichier partiel
+            Path tmp = Files.createTempFile(dir, "kpb", ".tmp");
+            try {
+                write(tmp, inst, attrs.lastModifiedTime().toMillis(), attrs.size());
+                try {
+                    Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur écriture cache: " + source + " - " + e.getMessage());
+        }
+    }
+
+    /** Lit un .kpb sans vérifier la source (nom et difficulté enregistrés). */
+    static Instance load(Path entry) throws IOException {
+        return read(entry, -1, -1);
+    }
+
+    private static Path entryFor(Path dir, Path source) {
+        Path abs = source.toAbsolutePath().normalize();
+        String base = abs.getFileName().toString().replace(".kp", "");
+        return dir.resolve(base + "-" + Long.toHexString(hash(abs.toString())) + ".kpb");
+    }
+
+    /** FNV-1a 64 bits : stable d'une exécution à l'autre, contrairement à String.hashCode sur 32 bits qui collisionne vite. */
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** @param mtime, size valeurs attendues pour la source ; -1 pour ne pas vérifier */
+    private static Instance read(Path entry, long mtime, long size) throws IOException {
+        try (FileChannel ch = FileChannel.open(entry, StandardOpenOption.READ)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+            long srcMtime = buf.getLong();
+            long srcSize = buf.getLong();
+            if ((mtime >= 0 && srcMtime != mtime) || (size >= 0 && srcSize != size)) return null;
+
+            int n = buf.getInt();
+            int capacity = buf.getInt();
+            String name = readString(buf);
+            String difficulty = readString(buf);
+            buf.position((buf.position() + 3) & ~3);
+
+            int[] profits = new int[n];
+            int[] weights = new int[n];
+            buf.asIntBuffer().get(profits).get(weights);
+            return new Instance(name, n, capacity, weights, profits, difficulty, -1);
+        }
+    }
+
+    private static void write(Path file, Instance inst, long mtime, long size) throws IOException {
+        byte[] name = inst.name.getBytes(StandardCharsets.UTF_8);
+        byte[] difficulty = inst.difficulty.getBytes(StandardCharsets.UTF_8);
+        int header = 4 + 4 + 8 + 8 + 4 + 4 + 2 + name.length + 2 + difficulty.length;
+        header = (header + 3) & ~3;
+
+        ByteBuffer buf = ByteBuffer.allocate(header + 8 * inst.n).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putLong(mtime).putLong(size);
+        buf.putInt(inst.n).putInt(inst.capacity);
+        buf.putShort((short) name.length).put(name);
+        buf.putShort((short) difficulty.length).put(difficulty);
+        buf.position(header);
+        buf.asIntBuffer().put(inst.profits).put(inst.weights);
+        buf.position(0);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
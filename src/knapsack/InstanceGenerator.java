@@ -0,0 +1,161 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.util.SplittableRandom;
+
+/**
+ * Générateur d'instances à graine explicite, pour les 13 classes de kplib (Pisinger, "Where are the hard knapsack
+ * problems?"). Les tableaux sont remplis sur place : n jusqu'à 10^6 sans fichier sur disque ni objet par objet.
+ * Une graine donne toujours la même instance (SplittableRandom, indépendant de la JVM).
+ *
+ * R est la plage des poids (kplib : 1000 à 10^7) ; les paramètres propres aux classes sont ceux de kplib
+ * (spanner : v = 2, m = 10 ; profit ceiling : d = 3 ; circle : d = 2/3).
+ */
+final class InstanceGenerator {
+
+    enum Kind {
+        UNCORRELATED("00Uncorrelated"),
+        WEAKLY_CORRELATED("01WeaklyCorrelated"),
+        STRONGLY_CORRELATED("02StronglyCorrelated"),
+        INVERSE_STRONGLY_CORRELATED("03InverseStronglyCorrelated"),
+        ALMOST_STRONGLY_CORRELATED("04AlmostStronglyCorrelated"),
+        SUBSET_SUM("05SubsetSum"),
+        UNCORRELATED_SIMILAR_WEIGHTS("06UncorrelatedWithSimilarWeights"),
+        SPANNER_UNCORRELATED("07SpannerUncorrelated"),
+        SPANNER_WEAKLY_CORRELATED("08SpannerWeaklyCorrelated"),
+        SPANNER_STRONGLY_CORRELATED("09SpannerStronglyCorrelated"),
+        MULTIPLE_STRONGLY_CORRELATED("10MultipleStronglyCorrelated"),
+        PROFIT_CEILING("11ProfitCeiling"),
+        CIRCLE("12Circle");
+
+        /** Nom du dossier kplib correspondant. */
+        final String kplibName;
+
+        Kind(String kplibName) {
+            this.kplibName = kplibName;
+        }
+
+        /** Par nom d'énumération ou préfixe du dossier kplib ("02", "02StronglyCorrelated"). */
+        static Kind parse(String s) {
+            for (Kind k : values()) {
+                if (k.name().equalsIgnoreCase(s) || k.kplibName.startsWith(s)) return k;
+            }
+            throw new IllegalArgumentException("Classe d'instances inconnue: " + s);
+        }
+    }
+
+    static final int DEFAULT_RANGE = 1000;
+    static final int MAX_N = 1_000_000;
+
+    private static final int SPANNER_V = 2;
+    private static final int SPANNER_M = 10;
+    private static final int CEILING_D = 3;
+
+    private InstanceGenerator() {}
+
+    /**
+     * Instance de n objets, capacité = moitié du poids total, nommée comme le fichier kplib équivalent
+     * (préfixe gen_, ex. gen_02StronglyCorrelated_n01000_R01000_s000).
+     */
+    static Instance generate(Kind kind, int n, int range, long seed) {
+        if (n < 1 || n > MAX_N) throw new IllegalArgumentException("n hors limites: " + n);
+        int[] weights = new int[n];
+        int[] profits = new int[n];
+        fill(kind, range, seed, weights, profits);
+        long capacity = capacity(weights, 1, 1);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacité hors des entiers pour " + kind + ", n=" + n + ", R=" + range);
+        }
+        String name = String.format("gen_%s_n%05d_R%05d_s%03d", kind.kplibName, n, range, seed);
+        return new Instance(name, n, (int) capacity, weights, profits, KplibLoader.difficultyOf(n), -1);
+    }
+
+    /** Capacité h/(H+1) du poids total, comme les séries de H instances de Pisinger. */
+    static long capacity(int[] weights, int h, int bigH) {
+        long sum = 0;
+        for (int w : weights) sum += w;
+        return sum * h / (bigH + 1);
+    }
+
+    /** Remplit weights et profits (même longueur) selon la classe. */
+    static void fill(Kind kind, int range, long seed, int[] weights, int[] profits) {
+        if (weights.length != profits.length) throw new IllegalArgumentException("Tableaux de tailles différentes");
+        if (range < 10) throw new IllegalArgumentException("Plage trop petite: " + range);
+        SplittableRandom rand = new SplittableRandom(seed);
+        int n = weights.length;
+        switch (kind) {
+            case SPANNER_UNCORRELATED -> spanner(Kind.UNCORRELATED, range, rand, weights, profits);
+            case SPANNER_WEAKLY_CORRELATED -> spanner(Kind.WEAKLY_CORRELATED, range, rand, weights, profits);
+            case SPANNER_STRONGLY_CORRELATED -> spanner(Kind.STRONGLY_CORRELATED, range, rand, weights, profits);
+            default -> {
+                for (int i = 0; i < n; i++) item(kind, range, rand, weights, profits, i);
+            }
+        }
+    }
+
+    private static void item(Kind kind, int r, SplittableRandom rand, int[] weights, int[] profits, int i) {
+        int w = uniform(rand, 1, r);
+        int p;
+        switch (kind) {
+            case UNCORRELATED -> p = uniform(rand, 1, r);
+            case WEAKLY_CORRELATED -> p = uniform(rand, Math.max(1, w - r / 10), w + r / 10);
+            case STRONGLY_CORRELATED -> p = w + r / 10;
+            case INVERSE_STRONGLY_CORRELATED -> {
+                p = uniform(rand, 1, r);
+                w = p + r / 10;
+            }
+            case ALMOST_STRONGLY_CORRELATED -> p = uniform(rand, w + r / 10 - r / 500, w + r / 10 + r / 500);
+            case SUBSET_SUM -> p = w;
+            case UNCORRELATED_SIMILAR_WEIGHTS -> {
+                w = uniform(rand, 100_000, 100_100);
+                p = uniform(rand, 1, 1000);
+            }
+            case MULTIPLE_STRONGLY_CORRELATED -> p = w % 6 == 0 ? w + 3 * r / 10 : w + 2 * r / 10;
+            case PROFIT_CEILING -> p = ceiling(w, CEILING_D);
+            case CIRCLE -> p = (int) (2.0 / 3.0 * Math.sqrt(4.0 * r * r - (double) (w - 2 * r) * (w - 2 * r)));
+            default -> throw new IllegalArgumentException("Classe spanner traitée à part: " + kind);
+        }
+        weights[i] = w;
+        profits[i] = Math.max(1, p);
+    }
+
+    /** Profit ceiling avec un d quelconque ; pour d = 3, mêmes tableaux que fill(PROFIT_CEILING, ...). */
+    static void profitCeiling(int d, int range, long seed, int[] weights, int[] profits) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = uniform(rand, 1, range);
+            profits[i] = ceiling(weights[i], d);
+        }
+    }
+
+    /** d * ceil(w / d) */
+    private static int ceiling(int w, int d) {
+        return d * ((w + d - 1) / d);
+    }
+
+    /**
+     * Spanner(v, m) : v objets de base tirés dans la classe donnée puis réduits (ceil(2x/m)),
+     * chaque objet est un multiple a ∈ [1, m] d'un objet de base tiré au hasard.
+     */
+    private static void spanner(Kind base, int range, SplittableRandom rand, int[] weights, int[] profits) {
+        int[] baseW = new int[SPANNER_V];
+        int[] baseP = new int[SPANNER_V];
+        for (int j = 0; j < SPANNER_V; j++) {
+            item(base, range, rand, baseW, baseP, j);
+            baseW[j] = (2 * baseW[j] + SPANNER_M - 1) / SPANNER_M;
+            baseP[j] = (2 * baseP[j] + SPANNER_M - 1) / SPANNER_M;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            int j = rand.nextInt(SPANNER_V);
+            int a = uniform(rand, 1, SPANNER_M);
+            weights[i] = a * baseW[j];
+            profits[i] = a * baseP[j];
+        }
+    }
+
+    /** Entier uniforme dans [lo, hi]. */
+    private static int uniform(SplittableRandom rand, int lo, int hi) {
+        return rand.nextInt(lo, hi + 1);
+    }
+}
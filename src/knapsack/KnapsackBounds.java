@@ -0,0 +1,64 @@
+package knapsack;
+
+/**
+ * Bornes classiques du sac à dos 0-1 sur des objets déjà triés par ratio profit/poids décroissant
+ * (ordre donné par KnapsackSolver.orderByRatio).
+ */
+final class KnapsackBounds {
+
+    private KnapsackBounds() {}
+
+    /** Recopie poids et profits dans l'ordre donné. */
+    static int[] permute(int[] values, int[] order) {
+        int[] sorted = new int[order.length];
+        for (int k = 0; k < order.length; k++) sorted[k] = values[order[k]];
+        return sorted;
+    }
+
+    /** Premier objet (position triée) qui ne rentre plus en remplissant dans l'ordre ; n si tout rentre. */
+    static int breakItem(int[] w, long capacity) {
+        long weight = 0;
+        for (int k = 0; k < w.length; k++) {
+            weight += w[k];
+            if (weight > capacity) return k;
+        }
+        return w.length;
+    }
+
+    /** Borne de Dantzig : relaxation linéaire, objet critique pris en fraction. */
+    static long dantzigBound(int[] w, int[] p, long capacity) {
+        long weight = 0, profit = 0;
+        for (int k = 0; k < w.length; k++) {
+            if (weight + w[k] > capacity) return profit + (capacity - weight) * p[k] / w[k];
+            weight += w[k];
+            profit += p[k];
+        }
+        return profit;
+    }
+
+    /**
+     * Borne U2 de Martello-Toth : max entre « objet critique exclu » (U0) et « objet critique inclus » (U1).
+     * Toujours inférieure ou égale à la borne de Dantzig.
+     */
+    static long martelloTothU2(int[] w, int[] p, long capacity) {
+        int n = w.length;
+        long weight = 0, profit = 0;
+        int b = 0;
+        for (; b < n; b++) {
+            if (weight + w[b] > capacity) break;
+            weight += w[b];
+            profit += p[b];
+        }
+        if (b == n) return profit; // tout rentre
+
+        long residual = capacity - weight;
+        // U0 : objet b exclu, l'espace restant est rempli au ratio de b+1
+        long u0 = profit + (b + 1 < n ? residual * p[b + 1] / w[b + 1] : 0);
+        // U1 : objet b inclus, l'excédent est retiré au ratio de b-1
+        long u1 = profit;
+        if (b > 0) {
+            u1 = profit + p[b] - ((w[b] - residual) * p[b - 1] + w[b - 1] - 1) / w[b - 1];
+        }
+        return Math.max(u0, u1);
+    }
+}
@@ -0,0 +1,90 @@
+package knapsack;
+
+/**
+ * Programmation dynamique pour le sac à dos 0-1.
+ * Un seul tableau glissant long[C+1] (mémoire O(C)), parcouru par capacité décroissante pour chaque objet.
+ * Les décisions sont stockées sur 1 bit par couple (objet, capacité) pour reconstruire la solution.
+ */
+final class KnapsackDP {
+
+    /** Taille maximale de la table de décisions (en bits) : 2^31 bits = 256 Mo. */
+    static final long DEFAULT_MAX_TABLE_BITS = 1L << 31;
+
+    /** Part du tas (Runtime.maxMemory) que s'autorise une DP : plusieurs tournent en même temps dans le pool lourd. */
+    static final double MAX_HEAP_SHARE = 0.25;
+
+    static class Outcome {
+        long value;        // meilleure valeur pour la capacité C
+        boolean[] taken;   // objets retenus, null si la table de décisions n'a pas été construite
+        boolean complete;  // false si la deadline a interrompu le calcul (valeur réalisable, pas forcément optimale)
+                           // ou si le tableau glissant ne tient pas dans MAX_HEAP_SHARE du tas (rows = 0, valeur 0)
+        int rows;          // nombre d'objets traités
+    }
+
+    private KnapsackDP() {}
+
+    static Outcome solve(int[] weights, int[] profits, int capacity, long deadline) {
+        return solve(weights, profits, capacity, deadline, DEFAULT_MAX_TABLE_BITS);
+    }
+
+    /**
+     * @param deadline   instant (System.currentTimeMillis) au-delà duquel on s'arrête ; Long.MAX_VALUE sinon
+     * @param maxTableBits au-delà, seule la valeur est calculée (taken == null)
+     */
+    static Outcome solve(int[] weights, int[] profits, int capacity, long deadline, long maxTableBits) {
+        int n = weights.length;
+        Outcome out = new Outcome();
+        if (capacity < 0) {
+            out.complete = true;
+            return out;
+        }
+
+        // Capacité trop grande pour le tas : on renonce plutôt que d'échouer sur OutOfMemoryError
+        long budget = (long) (Runtime.getRuntime().maxMemory() * MAX_HEAP_SHARE);
+        long rollingBytes = 8L * (capacity + 1);
+        if (rollingBytes > budget) return out;
+
+        int words = (capacity >>> 6) + 1; // mots de 64 bits par ligne (capacités 0..C)
+        long tableBits = (long) n * words * 64;
+        boolean withTable = tableBits <= maxTableBits && rollingBytes + tableBits / 8 <= budget;
+        long[][] decisions = withTable ? new long[n][] : null;
+
+        long[] dp = new long[capacity + 1];
+        int i = 0;
+        for (; i < n; i++) {
+            if (System.currentTimeMillis() > deadline) break;
+
+            int w = weights[i];
+            long p = profits[i];
+            if (w > capacity) continue; // objet trop lourd : ligne vide
+
+            long[] row = withTable ? (decisions[i] = new long[words]) : null;
+            for (int c = capacity; c >= w; c--) {
+                long candidate = dp[c - w] + p;
+                if (candidate > dp[c]) {
+                    dp[c] = candidate;
+                    if (row != null) row[c >>> 6] |= 1L << c;
+                }
+            }
+        }
+
+        out.value = dp[capacity];
+        out.rows = i;
+        out.complete = (i == n);
+
+        if (withTable) {
+            // Reconstruction à rebours : le bit (i, c) indique que l'objet i est pris à la capacité c
+            boolean[] taken = new boolean[n];
+            int c = capacity;
+            for (int k = i - 1; k >= 0; k--) {
+                long[] row = decisions[k];
+                if (row != null && (row[c >>> 6] & (1L << c)) != 0) {
+                    taken[k] = true;
+                    c -= weights[k];
+                }
+            }
+            out.taken = taken;
+        }
+        return out;
+    }
+}
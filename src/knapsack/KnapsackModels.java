@@ -0,0 +1,191 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Construction des modèles de sac à dos, chronométrée à part de la recherche (Result.buildMs).
+ *
+ * Choco : un modèle par résolution. Les coefficients du knapsack sont figés dans la contrainte et le Solver garde
+ * l'état de la recherche précédente (coupes sur l'objectif, LNS), il n'y a donc rien à réutiliser d'une instance à
+ * l'autre ; le modèle commun est seulement construit en un seul endroit.
+ *
+ * MPSolver : le modèle ne dépend que de n. Chaque thread garde un MPSolver par taille déjà rencontrée
+ * (au plus MAX_TEMPLATES_PER_THREAD), dont on remplace les coefficients, la capacité et le hint à chaque instance
+ * au lieu de recréer n variables par JNI. Les solveurs évincés sont libérés (delete), ce que l'ancien code ne faisait pas.
+ */
+final class KnapsackModels {
+
+    static final int MAX_TEMPLATES_PER_THREAD = 8;
+
+    private KnapsackModels() {}
+
+    // ===================== Choco =====================
+    static final class ChocoModel {
+        final Model model;
+        final BoolVar[] x;
+        final IntVar totalProfit;
+        final IntVar totalWeight;
+        final long buildMs;
+
+        private ChocoModel(Model model, BoolVar[] x, IntVar totalProfit, IntVar totalWeight, long buildMs) {
+            this.model = model;
+            this.x = x;
+            this.totalProfit = totalProfit;
+            this.totalWeight = totalWeight;
+            this.buildMs = buildMs;
+        }
+    }
+
+    /** Variables x, profit, poids, contrainte knapsack globale et objectif à maximiser. */
+    static ChocoModel choco(Instance inst, String name) {
+        long start = System.currentTimeMillis();
+        Model model = new Model(name);
+        BoolVar[] x = model.boolVarArray("x", inst.n);
+        long totalProfit = 0;
+        for (int p : inst.profits) totalProfit += p;
+        IntVar profit = model.intVar("profit", 0, (int) Math.min(Integer.MAX_VALUE, totalProfit));
+        IntVar weight = model.intVar("weight", 0, inst.capacity);
+
+        model.knapsack(x, weight, profit, inst.weights, inst.profits).post(); // use knapsack global constraint for specialization of the CSP for the problem
+        model.setObjective(Model.MAXIMIZE, profit);
+        return new ChocoModel(model, x, profit, weight, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Même modèle, sans la contrainte knapsack : sommes pondérées du poids et du profit, plus la borne de Dantzig
+     * incrémentale (DantzigBoundPropagator) sur l'ordre des ratios donné.
+     */
+    static ChocoModel chocoDantzig(Instance inst, String name, int[] order) {
+        long start = System.currentTimeMillis();
+        Model model = new Model(name);
+        BoolVar[] x = model.boolVarArray("x", inst.n);
+        long totalProfit = 0;
+        for (int p : inst.profits) totalProfit += p;
+        IntVar profit = model.intVar("profit", 0, (int) Math.min(Integer.MAX_VALUE, totalProfit));
+        IntVar weight = model.intVar("weight", 0, inst.capacity);
+
+        model.scalar(x, inst.weights, "=", weight).post();
+        model.scalar(x, inst.profits, "=", profit).post();
+        new Constraint("DantzigBound", new DantzigBoundPropagator(x, inst.weights, inst.profits, order, inst.capacity, profit)).post();
+        model.setObjective(Model.MAXIMIZE, profit);
+        return new ChocoModel(model, x, profit, weight, System.currentTimeMillis() - start);
+    }
+
+    // ===================== MPSolver =====================
+    /**
+     * Modèle CBC prêt à résoudre, emprunté au thread courant : à rendre par close() après lecture de la solution.
+     */
+    static final class MilpModel implements AutoCloseable {
+        final MPSolver solver;
+        final MPVariable[] x;
+        final MPConstraint capacity;
+        final MPObjective objective;
+        long buildMs;
+        private Incumbent owner; // résolution en cours, protégé par this
+
+        private MilpModel(MPSolver solver, int n) {
+            this.solver = solver;
+            this.x = solver.makeIntVarArray(n, 0.0, 1.0, "x");
+            this.capacity = solver.makeConstraint(0.0, 0.0, "capacity");
+            this.objective = solver.objective();
+            objective.setMaximization();
+        }
+
+        /** Donne à CBC la solution de l'incumbent comme point de départ, et l'arrête quand il est fermé. */
+        void share(Incumbent incumbent) {
+            synchronized (this) {
+                owner = incumbent;
+            }
+            boolean[] known = incumbent.solution();
+            if (known != null) {
+                double[] hint = new double[x.length];
+                for (int i = 0; i < x.length; i++) hint[i] = known[i] ? 1.0 : 0.0;
+                solver.setHint(x, hint);
+            }
+            // Le solveur resservira : une fermeture tardive de cet incumbent ne doit pas interrompre l'instance suivante
+            incumbent.onClose(() -> interrupt(incumbent)); // sans effet si le backend ne sait pas s'interrompre
+        }
+
+        private synchronized void interrupt(Incumbent incumbent) {
+            if (owner == incumbent) solver.interruptSolve();
+        }
+
+        boolean[] taken() {
+            boolean[] taken = new boolean[x.length];
+            for (int i = 0; i < x.length; i++) taken[i] = x[i].solutionValue() > 0.5;
+            return taken;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                owner = null;
+            }
+            release(this);
+        }
+    }
+
+    private static final ThreadLocal<Map<Integer, MilpModel>> TEMPLATES = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, MilpModel> eldest) {
+                    if (size() <= MAX_TEMPLATES_PER_THREAD) return false;
+                    eldest.getValue().solver.delete();
+                    return true;
+                }
+            });
+
+    /**
+     * @return null si CBC n'est pas disponible dans les bibliothèques natives
+     */
+    static MilpModel milp(Instance inst) {
+        long start = System.currentTimeMillis();
+        // Retiré de la table pendant l'emprunt : un appel imbriqué sur le même thread aurait son propre solveur
+        MilpModel m = TEMPLATES.get().remove(inst.n);
+        if (m == null) {
+            MPSolver solver = MPSolver.createSolver("CBC_MIXED_INTEGER_PROGRAMMING");
+            if (solver == null) return null;
+            m = new MilpModel(solver, inst.n);
+        } else {
+            m.solver.reset(); // oublie la dernière résolution, le modèle est réextrait au prochain solve
+            m.solver.setHint(new MPVariable[0], new double[0]);
+        }
+        m.capacity.setBounds(0.0, inst.capacity);
+        for (int i = 0; i < inst.n; i++) {
+            m.capacity.setCoefficient(m.x[i], inst.weights[i]);
+            m.objective.setCoefficient(m.x[i], inst.profits[i]);
+        }
+        m.buildMs = System.currentTimeMillis() - start;
+        return m;
+    }
+
+    private static void release(MilpModel m) {
+        MilpModel previous = TEMPLATES.get().put(m.x.length, m);
+        if (previous != null && previous != m) previous.solver.delete();
+    }
+
+    /** Nombre de modèles CBC gardés par le thread courant (pour les benchmarks). */
+    static int cachedTemplates() {
+        return TEMPLATES.get().size();
+    }
+
+    /** Libère les modèles CBC du thread courant. */
+    static void clearTemplates() {
+        Map<Integer, MilpModel> templates = TEMPLATES.get();
+        for (MilpModel m : new HashMap<>(templates).values()) m.solver.delete();
+        templates.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package knapsack;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.lns.neighbors.IntNeighbor;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Voisinages LNS spécifiques au sac à dos : toutes les variables sont fixées à leur valeur dans la dernière
+ * solution sauf relaxCount d'entre elles, tirées au hasard (RANDOM) ou formant une bande contiguë
+ * dans l'ordre par ratio autour de l'objet critique (RATIO_BAND), là où se jouent les échanges utiles.
+ */
+class KnapsackNeighborhood extends IntNeighbor {
+
+    private final LnsConfig.Neighborhood kind;
+    private final int[] order;       // ordre par ratio décroissant
+    private final int breakPos;      // position de l'objet critique dans order
+    private final int relaxCount;
+    private final Random rand;
+    private final boolean[] relaxed;
+    private final int[] shuffle;
+
+    KnapsackNeighborhood(IntVar[] x, LnsConfig.Neighborhood kind, int[] order, int breakPos, int relaxCount, long seed) {
+        super(x);
+        this.kind = kind;
+        this.order = order;
+        this.breakPos = breakPos;
+        this.relaxCount = relaxCount;
+        this.rand = new Random(seed);
+        this.relaxed = new boolean[x.length];
+        this.shuffle = new int[x.length];
+        for (int i = 0; i < x.length; i++) shuffle[i] = i;
+    }
+
+    @Override
+    public void fixSomeVariables() throws ContradictionException {
+        int n = variables.length;
+        Arrays.fill(relaxed, false);
+
+        if (kind == LnsConfig.Neighborhood.RATIO_BAND) {
+            // Bande de relaxCount objets, centrée sur l'objet critique à un décalage aléatoire près (au plus relaxCount)
+            int shift = rand.nextInt(2 * relaxCount + 1) - relaxCount;
+            int from = Math.max(0, Math.min(n - relaxCount, breakPos - relaxCount / 2 + shift));
+            for (int k = from; k < from + relaxCount; k++) relaxed[order[k]] = true;
+        } else {
+            // Tirage partiel de Fisher-Yates
+            for (int k = 0; k < relaxCount; k++) {
+                int j = k + rand.nextInt(n - k);
+                int tmp = shuffle[k]; shuffle[k] = shuffle[j]; shuffle[j] = tmp;
+                relaxed[shuffle[k]] = true;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (!relaxed[i] && variables[i].contains(values[i])) freeze(i);
+        }
+    }
+}
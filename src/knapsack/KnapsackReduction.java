@@ -0,0 +1,268 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import java.util.Arrays;
+
+/**
+ * Réduction de l'instance avant résolution : les objets dont la valeur est déterminée sont fixés,
+ * la méthode choisie ne voit que les objets libres, puis le résultat est ramené à l'instance d'origine.
+ *
+ * 1. Objets plus lourds que la capacité : x = 0.
+ * 2. Dominance : j est dominé par i si w_i <= w_j et p_i >= p_j. Il existe un optimum où x_j = 1 implique
+ *    x_i = 1 pour tous ses dominants ; si j et ses dominants ne tiennent pas ensemble dans le sac, x_j = 0.
+ * 3. Tests de Martello-Toth (Dembo-Hammer) avec z = glouton par ratio : un objet de la solution critique est fixé à 1
+ *    si la borne de Dantzig sans lui ne dépasse pas z, un objet hors solution critique à 0 si la borne avec lui
+ *    ne dépasse pas z. Chaque borne se calcule en O(log n) par sommes préfixes sur l'ordre des ratios.
+ *
+ * Les tests 3 ne gardent que les solutions strictement meilleures que z : la valeur finale est
+ * max(z, valeur réduite + profit fixé), et une résolution optimale de l'instance réduite prouve l'optimum.
+ */
+final class KnapsackReduction {
+
+    static class Reduction {
+        Instance reduced;        // objets libres seulement, même nom que l'instance d'origine
+        int[] free;              // indice d'origine de chaque objet libre
+        boolean[] fixedOne;      // objets fixés à 1 (indices d'origine)
+        long fixedProfit;
+        long lowerBound;         // z : glouton par ratio sur l'instance d'origine
+        boolean[] lowerSolution;
+        boolean infeasible;      // objets fixés à 1 trop lourds ensemble : aucune solution ne bat z, z est optimal
+        int tooHeavy, dominated, fixedZero, fixedOnes;
+        long timeMs;
+
+        /** Solution de l'instance d'origine à partir de celle de l'instance réduite. */
+        boolean[] expand(boolean[] reducedTaken) {
+            boolean[] taken = fixedOne.clone();
+            for (int k = 0; k < free.length; k++) if (reducedTaken[k]) taken[free[k]] = true;
+            return taken;
+        }
+
+        int freeCount() {
+            return free.length;
+        }
+    }
+
+    private KnapsackReduction() {}
+
+    static Reduction reduce(Instance inst) {
+        long start = System.currentTimeMillis();
+        int n = inst.n;
+        long capacity = inst.capacity;
+        Reduction red = new Reduction();
+        red.fixedOne = new boolean[n];
+        boolean[] fixedZero = new boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            if (inst.weights[i] > capacity) {
+                fixedZero[i] = true;
+                red.tooHeavy++;
+            }
+        }
+        red.dominated = dominance(inst, fixedZero);
+
+        // Ordre des ratios sur les objets restants, sommes préfixes, objet critique et glouton
+        int[] order = KnapsackSolver.orderByRatio(inst);
+        int m = 0;
+        for (int i : order) if (!fixedZero[i]) order[m++] = i;
+        int[] w = new int[m];
+        int[] p = new int[m];
+        long[] sw = new long[m + 1];
+        long[] sp = new long[m + 1];
+        for (int k = 0; k < m; k++) {
+            w[k] = inst.weights[order[k]];
+            p[k] = inst.profits[order[k]];
+            sw[k + 1] = sw[k] + w[k];
+            sp[k + 1] = sp[k] + p[k];
+        }
+        int b = KnapsackBounds.breakItem(w, capacity);
+
+        red.lowerSolution = new boolean[n];
+        long weight = 0;
+        for (int k = 0; k < m; k++) {
+            if (weight + w[k] <= capacity) {
+                weight += w[k];
+                red.lowerBound += p[k];
+                red.lowerSolution[order[k]] = true;
+            }
+        }
+        long z = red.lowerBound;
+
+        for (int k = 0; k < m; k++) {
+            if (k < b) {
+                if (dantzigWithout(k, capacity, w, p, sw, sp) <= z) red.fixedOne[order[k]] = true;
+            } else if (p[k] + dantzigWithout(k, capacity - w[k], w, p, sw, sp) <= z) {
+                fixedZero[order[k]] = true;
+            }
+        }
+
+        // Capacité résiduelle : les objets libres devenus trop lourds sont eux aussi exclus
+        long residual = capacity;
+        for (int i = 0; i < n; i++) {
+            if (red.fixedOne[i]) {
+                residual -= inst.weights[i];
+                red.fixedProfit += inst.profits[i];
+                red.fixedOnes++;
+            }
+        }
+        red.infeasible = residual < 0;
+        int freeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (!red.fixedOne[i] && !fixedZero[i] && inst.weights[i] > residual) fixedZero[i] = true;
+            if (!red.fixedOne[i] && !fixedZero[i]) freeCount++;
+        }
+        red.fixedZero = n - freeCount - red.fixedOnes - red.tooHeavy - red.dominated;
+
+        red.free = new int[freeCount];
+        int[] weights = new int[freeCount];
+        int[] profits = new int[freeCount];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (red.fixedOne[i] || fixedZero[i]) continue;
+            red.free[k] = i;
+            weights[k] = inst.weights[i];
+            profits[k] = inst.profits[i];
+            k++;
+        }
+        int optimum = inst.optimalValue > 0 ? (int) Math.max(-1, inst.optimalValue - red.fixedProfit) : -1;
+        red.reduced = new Instance(inst.name, freeCount, (int) Math.max(0, residual), weights, profits, inst.difficulty, optimum);
+        red.timeMs = System.currentTimeMillis() - start;
+        return red;
+    }
+
+    /**
+     * Fixe à 0 les objets dont les dominants, avec eux, dépassent la capacité.
+     * Balayage par poids croissant (profit décroissant, puis indice, pour départager les objets identiques)
+     * avec un arbre de Fenwick sur le rang de profit qui cumule le poids des objets déjà vus de profit >= p_j.
+     * @return nombre d'objets fixés
+     */
+    private static int dominance(Instance inst, boolean[] fixedZero) {
+        int n = inst.n;
+        long[] keys = new long[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (!fixedZero[i]) keys[m++] = ((long) inst.profits[i] << 32) | i;
+        }
+        // Rang de profit décroissant : rang 1 = plus grand profit
+        Arrays.sort(keys, 0, m);
+        int[] rank = new int[n];
+        int r = 0;
+        long previous = -1;
+        for (int k = m - 1; k >= 0; k--) {
+            long profit = keys[k] >>> 32;
+            if (profit != previous) r++;
+            previous = profit;
+            rank[(int) keys[k]] = r;
+        }
+        // Ordre de balayage : poids croissant, puis profit décroissant, puis indice
+        Integer[] sweep = new Integer[m];
+        for (int k = 0; k < m; k++) sweep[k] = (int) keys[k];
+        Arrays.sort(sweep, (a, c) -> {
+            if (inst.weights[a] != inst.weights[c]) return Integer.compare(inst.weights[a], inst.weights[c]);
+            if (inst.profits[a] != inst.profits[c]) return Integer.compare(inst.profits[c], inst.profits[a]);
+            return Integer.compare(a, c);
+        });
+
+        long[] fenwick = new long[r + 1];
+        int fixed = 0;
+        for (int j : sweep) {
+            long dominantsWeight = 0;
+            for (int k = rank[j]; k > 0; k -= k & -k) dominantsWeight += fenwick[k];
+            if (dominantsWeight + inst.weights[j] > inst.capacity) {
+                fixedZero[j] = true;
+                fixed++;
+            }
+            // j reste un dominant des suivants même s'il est fixé : l'argument d'échange ne dépend pas de x_j
+            for (int k = rank[j]; k <= r; k += k & -k) fenwick[k] += inst.weights[j];
+        }
+        return fixed;
+    }
+
+    /** Borne de Dantzig sur les objets triés sauf j, pour une capacité c (0 si c < 0 : choix irréalisable). */
+    private static long dantzigWithout(int j, long c, int[] w, int[] p, long[] sw, long[] sp) {
+        if (c < 0) return Long.MIN_VALUE / 2;
+        int m = w.length;
+        // Plus grand k tel que le poids des k premiers objets (sans j) tienne dans c
+        int lo = 0, hi = m;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            long weight = sw[mid] - (j < mid ? w[j] : 0);
+            if (weight <= c) lo = mid;
+            else hi = mid - 1;
+        }
+        int k = lo;
+        long weight = sw[k] - (j < k ? w[j] : 0);
+        long profit = sp[k] - (j < k ? p[j] : 0);
+        if (k < m && k != j) profit += (c - weight) * p[k] / w[k];
+        return profit;
+    }
+
+    /**
+     * Résout l'instance réduite avec la méthode donnée et ramène le résultat à l'instance d'origine
+     * (nom de méthode suivi de _Reduced). La réduction est comptée dans buildMs.
+     * Avec un incumbent partagé, z lui est proposé, la meilleure solution trouvée y est reportée,
+     * et sa fermeture par une autre méthode arrête la résolution réduite.
+     */
+    static Result solve(Instance inst, long timeLimit, Incumbent incumbent, BenchmarkRunner.SolveMethod solver, String method) {
+        Reduction red = reduce(inst);
+        if (incumbent != null) incumbent.offer(red.lowerBound, red.lowerSolution);
+
+        Result r;
+        long value;
+        boolean optimal;
+        if (red.infeasible || red.freeCount() == 0) {
+            // Tout est fixé : l'optimum est z ou la solution fixée
+            value = red.infeasible ? red.lowerBound : Math.max(red.lowerBound, red.fixedProfit);
+            optimal = true;
+            r = new Result(inst.name, method, 0, 0, 0, true, -1);
+        } else {
+            // Borne de départ pour l'instance réduite : seules les solutions meilleures que z y sont cherchées
+            Incumbent child = new Incumbent();
+            long known = Math.max(red.lowerBound, incumbent != null && incumbent.hasValue() ? incumbent.value() : 0);
+            child.offer(known - red.fixedProfit, null);
+            if (incumbent != null) {
+                // L'optimum prouvé ailleurs est d'abord ramené à l'instance réduite : la fermeture du fils vaut alors preuve
+                incumbent.onClose(() -> {
+                    if (incumbent.hasValue()) child.offer(incumbent.value() - red.fixedProfit, null);
+                    child.close();
+                });
+            }
+
+            r = solver.solve(red.reduced, Math.max(1, timeLimit - red.timeMs), child);
+            value = Math.max(red.lowerBound, r.bestValue + red.fixedProfit);
+            optimal = r.optimal;
+            if (incumbent != null) {
+                boolean[] taken = child.solution();
+                if (taken != null) incumbent.offer(child.value() + red.fixedProfit, red.expand(taken));
+                // Arrêt par une autre méthode : la valeur prouvée est celle de l'incumbent, pas celle trouvée ici
+                if (incumbent.isClosed() && incumbent.hasValue()) {
+                    value = Math.max(value, incumbent.value());
+                    optimal = true;
+                }
+            }
+        }
+        if (optimal) {
+            inst.optimalValue = (int) value;
+            if (incumbent != null) incumbent.close();
+        }
+
+        Result mapped = new Result(inst.name, method, (int) value, r.timeMs, r.nodes, optimal, inst.optimalValue);
+        mapped.buildMs = r.buildMs + red.timeMs;
+        mapped.firstSolutionMs = r.firstSolutionMs;
+        mapped.bestSolutionMs = r.bestSolutionMs;
+        mapped.improvements = r.improvements;
+        mapped.fails = r.fails;
+        mapped.backtracks = r.backtracks;
+        mapped.peakHeapMb = r.peakHeapMb;
+        if (r.trace != null) {
+            r.trace.offset(red.fixedProfit);
+            mapped.trace = r.trace;
+        }
+        return mapped;
+    }
+
+    /** Méthode du benchmark précédée de la réduction. */
+    static BenchmarkRunner.SolveMethod wrap(BenchmarkRunner.SolveMethod solver, String method) {
+        return (inst, timeLimit, incumbent) -> solve(inst, timeLimit, incumbent, solver, method);
+    }
+}
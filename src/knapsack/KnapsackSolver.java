@@ -1,27 +1,40 @@
 package knapsack;
 
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.search.SearchState;
 import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.strategy.IntStrategy;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainBest;
 import org.chocosolver.solver.search.strategy.selectors.variables.FirstFail;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
 import org.chocosolver.solver.search.strategy.selectors.variables.Smallest;
 import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelectorWithTies;
-import org.chocosolver.solver.search.loop.lns.INeighborFactory;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.lns.neighbors.PropagationGuidedNeighborhood;
+import org.chocosolver.solver.search.limits.TimeCounter;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.restart.LubyCutoff;
 
 import com.google.ortools.Loader;
-import com.google.ortools.linearsolver.MPConstraint;
-import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
-import com.google.ortools.linearsolver.MPVariable;
+import com.google.ortools.linearsolver.MPSolverParameters;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class KnapsackSolver {
 
@@ -50,13 +63,24 @@ public class KnapsackSolver {
         String instance;
         String method;
         int bestValue;
-        long timeMs;
-        int nodes;
+        long timeMs;   // sans la construction du modèle, sauf pour LNS dont le budget la comprend
+        long buildMs;  // construction du modèle, voir KnapsackModels
+        long nodes;
         boolean optimal;
         int optimalKnown;
         double gapPercent;
 
-        Result(String instance, String method, int bestValue, long timeMs, int nodes, boolean optimal, int optimalKnown) {
+        // Télémétrie de la recherche (SearchTelemetry), -1 quand le solveur ne la fournit pas
+        long firstSolutionMs = -1;
+        long bestSolutionMs = -1;
+        long improvements = -1; // solutions strictement meilleures que la précédente
+        long fails = -1;
+        long backtracks = -1;
+        long peakHeapMb = -1;   // tas de la JVM entière, échantillonné
+        ConvergenceTrace trace; // null : seule la valeur finale est connue
+        long[] workerNodes;     // méthodes parallèles : nœuds par thread, null sinon
+
+        Result(String instance, String method, int bestValue, long timeMs, long nodes, boolean optimal, int optimalKnown) {
             this.instance = instance;
             this.method = method;
             this.bestValue = bestValue;
@@ -70,60 +94,47 @@ public class KnapsackSolver {
                 this.gapPercent = -1;
             }
         }
+
+        Result withBuildMs(long buildMs) {
+            this.buildMs = buildMs;
+            return this;
+        }
     }
 
     // ===================== Lecture d’instances =====================
     static Instance readInstance(String filepath, String difficulty) {
-        try {
-            File file = new File(filepath);
-            BufferedReader br;
-
-            if (file.exists()) {
-                br = new BufferedReader(new FileReader(file));
-            } else {
-                InputStream is = KnapsackSolver.class.getClassLoader().getResourceAsStream(filepath);
-                if (is == null) {
-                    System.err.println("Fichier introuvable: " + filepath);
-                    return null;
-                }
-                br = new BufferedReader(new InputStreamReader(is));
-            }
-
-            List<String> lines = br.lines().map(String::trim).filter(s -> !s.isEmpty()).toList();
-            br.close();
+        String name = filepath.substring("kplib/".length()).replace("/", "_").replace(".kp", "");
+        Path file = Path.of(filepath);
+        if (Files.isRegularFile(file)) return readInstance(file, name, difficulty);
+        return readInstance(filepath, name, difficulty, () -> KpParser.read(filepath)); // ressource du classpath
+    }
 
-            if (lines.size() < 2) {
-                System.err.println("Fichier invalide (trop court): " + filepath);
-                return null;
-            }
+    /**
+     * Variante utilisée par KplibLoader : le nom est déjà calculé à partir du chemin relatif à la racine kplib.
+     * Passe d'abord par le cache binaire (InstanceCache), qui est rempli après chaque lecture du texte.
+     */
+    static Instance readInstance(Path file, String name, String difficulty) {
+        Instance cached = InstanceCache.lookup(file, name, difficulty);
+        if (cached != null) return cached;
+        Instance inst = readInstance(file.toString(), name, difficulty, () -> KpParser.read(file));
+        if (inst != null) InstanceCache.store(file, inst);
+        return inst;
+    }
 
-            int n = Integer.parseInt(lines.get(0));
-            int capacity = Integer.parseInt(lines.get(1));
-            if (lines.size() < 2 + n) {
-                System.err.println("Fichier invalide (pas assez d'items): " + filepath);
+    private static Instance readInstance(String source, String name, String difficulty, Callable<KpParser.Data> reader) {
+        try {
+            KpParser.Data data = reader.call();
+            if (data == null) {
+                System.err.println("Fichier introuvable: " + source);
                 return null;
             }
+            return new Instance(name, data.n, data.capacity, data.weights, data.profits, difficulty, -1);
 
-            int[] profits = new int[n];
-            int[] weights = new int[n];
-
-            for (int i = 0; i < n; i++) {
-                String[] parts = lines.get(2 + i).trim().split("\\s+");
-                if (parts.length < 2) {
-                    System.err.println("Ligne invalide: " + lines.get(2 + i));
-                    return null;
-                }
-                profits[i] = Integer.parseInt(parts[0]);
-                weights[i] = Integer.parseInt(parts[1]);
-            }
-            String name = filepath.substring("kplib/".length()).replace("/", "_").replace(".kp", "");
-            return new Instance(name, n, capacity, weights, profits, difficulty, -1);
-
-        } catch (NumberFormatException e) {
-            System.err.println("Erreur de format: " + filepath + " - " + e.getMessage());
+        } catch (KpParser.FormatException e) {
+            System.err.println("Erreur de format: " + source + " - " + e.getMessage());
             return null;
         } catch (Exception e) {
-            System.err.println("Erreur lecture: " + filepath + " - " + e.getMessage());
+            System.err.println("Erreur lecture: " + source + " - " + e.getMessage());
             return null;
         }
     }
@@ -154,97 +165,37 @@ public class KnapsackSolver {
         return instances;
     }
 
-    static List<Instance> loadBenchmarkInstances() {
-        List<Instance> instances = new ArrayList<>();
-        System.out.println("=== Chargement des instances de benchmark ===");
+    /** Sélection par défaut : 02StronglyCorrelated, n = 50 / 100 / 1000, R01000, graines s000 à s009. */
+    static KplibLoader benchmarkSelection() throws IOException {
+        return benchmarkSelection("kplib");
+    }
 
-        String[][] files = {
-                { // faciles
-                	/*"kplib/00Uncorrelated/n00050/R01000/s000.kp",
-                    "kplib/00Uncorrelated/n00050/R01000/s001.kp",
-                	"kplib/01WeaklyCorrelated/n00050/R01000/s000.kp",
-                	"kplib/02StronglyCorrelated/n00050/R01000/s000.kp",
-                	"kplib/03InverseStronglyCorrelated/n00050/R01000/s000.kp",
-                	"kplib/04AlmostStronglyCorrelated/n00050/R01000/s000.kp",
-                	"kplib/05SubsetSum/n00050/R01000/s000.kp",
-                	"kplib/06UncorrelatedWithSimilarWeights/n00050/R01000/s000.kp",
-                	"kplib/07SpannerUncorrelated/n00050/R01000/s000.kp",
-                	"kplib/08SpannerWeaklyCorrelated/n00050/R01000/s000.kp"*/
-                    "kplib/02StronglyCorrelated/n00050/R01000/s000.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s001.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s002.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s003.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s004.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s005.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s006.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s007.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s008.kp",
-                    "kplib/02StronglyCorrelated/n00050/R01000/s009.kp"
-                },
+    static KplibLoader benchmarkSelection(String root) throws IOException {
+        KplibLoader loader = KplibLoader.locate(root);
+        if (loader == null) return null;
+        return loader.classes("02StronglyCorrelated").sizes(50, 100, 1000).glob("*/*/R01000/s00?.kp");
+    }
 
-                { // moyens
-                	/*"kplib/00Uncorrelated/n00100/R01000/s000.kp",
-                	"kplib/00Uncorrelated/n00100/R01000/s001.kp",
-                	"kplib/01WeaklyCorrelated/n00100/R01000/s000.kp",
-                	"kplib/01WeaklyCorrelated/n00100/R01000/s001.kp",
-                	"kplib/02StronglyCorrelated/n00100/R01000/s000.kp",
-                	"kplib/03InverseStronglyCorrelated/n00100/R01000/s000.kp",
-                	"kplib/04AlmostStronglyCorrelated/n00100/R01000/s000.kp",
-                	"kplib/05SubsetSum/n00100/R01000/s000.kp",
-                	"kplib/06UncorrelatedWithSimilarWeights/n00100/R01000/s000.kp",
-                	"kplib/07SpannerUncorrelated/n00100/R01000/s000.kp"*/
-                    "kplib/02StronglyCorrelated/n00100/R01000/s000.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s001.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s002.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s003.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s004.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s005.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s006.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s007.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s008.kp",
-                    "kplib/02StronglyCorrelated/n00100/R01000/s009.kp"
-                },
-                { // difficiles
-                	/*"kplib/00Uncorrelated/n01000/R01000/s000.kp",
-                	"kplib/00Uncorrelated/n01000/R01000/s001.kp",
-                    "kplib/01WeaklyCorrelated/n01000/R01000/s000.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s000.kp",
-                    "kplib/03InverseStronglyCorrelated/n01000/R01000/s000.kp",
-                    "kplib/04AlmostStronglyCorrelated/n01000/R01000/s000.kp",
-                    "kplib/05SubsetSum/n01000/R01000/s000.kp",
-                    "kplib/06UncorrelatedWithSimilarWeights/n01000/R01000/s000.kp",
-                    "kplib/07SpannerUncorrelated/n01000/R01000/s000.kp",
-                    "kplib/08SpannerWeaklyCorrelated/n01000/R01000/s000.kp"*/
-                    "kplib/02StronglyCorrelated/n01000/R01000/s000.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s001.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s002.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s003.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s004.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s005.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s006.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s007.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s008.kp",
-                    "kplib/02StronglyCorrelated/n01000/R01000/s009.kp"
-                }
-        };
-        String[] difficulties = {"facile", "moyen", "difficile"};
+    static List<Instance> loadBenchmarkInstances() {
+        System.out.println("=== Chargement des instances de benchmark ===");
 
-        int loadedCount = 0;
-        for (int i = 0; i < files.length; i++) {
-            for (String file : files[i]) {
-                Instance inst = readInstance(file, difficulties[i]);
-                if (inst != null) {
-                    instances.add(inst);
-                    loadedCount++;
+        List<Instance> instances = new ArrayList<>();
+        try {
+            KplibLoader loader = benchmarkSelection();
+            if (loader != null) {
+                try (Stream<Instance> stream = loader.stream()) {
+                    instances = stream.collect(Collectors.toList());
                 }
             }
+        } catch (IOException e) {
+            System.err.println("Erreur lecture kplib: " + e.getMessage());
         }
 
         if (instances.isEmpty()) {
             System.out.println("Aucune instance trouvée. Génération d'instances de secours...");
             instances = generateFallbackInstances();
         } else {
-            System.out.println(loadedCount + " instances chargées depuis les benchmarks\n");
+            System.out.println(instances.size() + " instances chargées depuis les benchmarks\n");
         }
         return instances;
     }
@@ -264,20 +215,38 @@ public class KnapsackSolver {
         return Arrays.stream(idx).mapToInt(Integer::intValue).toArray();
     }
 
+    /**
+     * Branche un modèle Choco sur une borne partagée : chaque solution y est publiée, la meilleure valeur des autres méthodes
+     * (heuristiques comprises) relève la borne inférieure de l'objectif à chaque nœud, et la recherche s'arrête
+     * si une autre méthode a prouvé l'optimalité.
+     */
+    static void shareIncumbent(Solver solver, BoolVar[] x, IntVar objective, Incumbent incumbent) {
+        if (incumbent == null) return;
+        solver.addStopCriterion(incumbent::isClosed);
+        solver.plugMonitor((IMonitorSolution) () -> {
+            boolean[] taken = new boolean[x.length];
+            for (int i = 0; i < x.length; i++) taken[i] = x[i].getValue() == 1;
+            incumbent.offer(objective.getValue(), taken);
+        });
+        solver.plugMonitor(new IMonitorOpenNode() {
+            @Override
+            public void beforeOpenNode() {
+                if (incumbent.hasValue()) solver.getObjectiveManager().updateBestSolution(incumbent.value());
+            }
+        });
+    }
+
     // ===================== Méthodes de résolution =====================
     static Result solveCompleteFirstFail(Instance inst, long timeLimit) {
-        Model model = new Model("Knapsack");
-        BoolVar[] x = model.boolVarArray("x", inst.n);
-        IntVar totalProfit = model.intVar("profit", 0, Arrays.stream(inst.profits).sum());
-        IntVar knapsackWeight = model.intVar("weight", 0, inst.capacity);
+        KnapsackModels.ChocoModel m = KnapsackModels.choco(inst, "Knapsack");
+        BoolVar[] x = m.x;
+        IntVar totalProfit = m.totalProfit;
 
-        model.knapsack(x, knapsackWeight, totalProfit, inst.weights, inst.profits).post(); // use knapsack global constraint for specialization of the CSP for the problem
-        model.setObjective(Model.MAXIMIZE, totalProfit);
-
-        Solver solver = model.getSolver();
+        Solver solver = m.model.getSolver();
         solver.setSearch(Search.inputOrderLBSearch(x));
         solver.limitTime(timeLimit);
 
+        SearchTelemetry telemetry = SearchTelemetry.choco(solver, totalProfit);
         long start = System.currentTimeMillis();
 
         int bestValue = 0;
@@ -286,60 +255,75 @@ public class KnapsackSolver {
         long elapsed = System.currentTimeMillis() - start;
         boolean optimal = !solver.isStopCriterionMet() && solver.getSolutionCount() > 0;
 
-        return new Result(inst.name, "Complete_FirstFail", bestValue, elapsed, (int)solver.getNodeCount(), optimal, inst.optimalValue);
+        Result r = new Result(inst.name, "Complete_FirstFail", bestValue, elapsed, solver.getNodeCount(), optimal, inst.optimalValue);
+        return telemetry.fill(r.withBuildMs(m.buildMs), solver);
     }
 
     static Result solveCompleteDomOverWDeg(Instance inst, long timeLimit) {
-        Model model = new Model("Knapsack");
-        BoolVar[] x = model.boolVarArray("x", inst.n);
-        IntVar totalProfit = model.intVar("profit", 0, Arrays.stream(inst.profits).sum());
-        IntVar knapsackWeight = model.intVar("weight", 0, inst.capacity);
+        return solveCompleteDomOverWDeg(inst, timeLimit, null);
+    }
 
-        model.knapsack(x, knapsackWeight, totalProfit, inst.weights, inst.profits).post();
-        model.setObjective(Model.MAXIMIZE, totalProfit);
+    static Result solveCompleteDomOverWDeg(Instance inst, long timeLimit, Incumbent incumbent) {
+        KnapsackModels.ChocoModel m = KnapsackModels.choco(inst, "Knapsack");
+        BoolVar[] x = m.x;
+        IntVar totalProfit = m.totalProfit;
 
-        Solver solver = model.getSolver();
+        Solver solver = m.model.getSolver();
         solver.setSearch(Search.domOverWDegSearch(x));
         solver.limitTime(timeLimit);
+        shareIncumbent(solver, x, totalProfit, incumbent);
 
+        SearchTelemetry telemetry = SearchTelemetry.choco(solver, totalProfit);
         long start = System.currentTimeMillis();
 
         int bestValue = 0;
         while (solver.solve()) bestValue = totalProfit.getValue();
 
         long elapsed = System.currentTimeMillis() - start;
-        boolean optimal = !solver.isStopCriterionMet() && solver.getSolutionCount() > 0;
+        // Avec une borne partagée, une recherche complète sans solution prouve que la borne est optimale
+        boolean optimal = !solver.isStopCriterionMet() && (solver.getSolutionCount() > 0 || (incumbent != null && incumbent.hasValue()));
+        if (optimal && incumbent != null) {
+            bestValue = (int) Math.max(bestValue, incumbent.value()); // la borne partagée n'a pas été dépassée : elle est optimale
+            incumbent.close();
+        }
 
-        return new Result(inst.name, "Complete_DomOverWDeg", bestValue, elapsed, (int)solver.getNodeCount(), optimal, inst.optimalValue);
+        Result r = new Result(inst.name, "Complete_DomOverWDeg", bestValue, elapsed, solver.getNodeCount(), optimal, inst.optimalValue);
+        return telemetry.fill(r.withBuildMs(m.buildMs), solver);
     }
 
-    static Result solveCompleteRatioFirst(Instance inst, long timeLimit) {
-        Model model = new Model("Knapsack-Ratio");
-
-        BoolVar[] x = model.boolVarArray("x", inst.n);
-        IntVar totalProfit = model.intVar("profit", 0, Arrays.stream(inst.profits).sum());
-        IntVar totalWeight = model.intVar("weight", 0, inst.capacity);
+    /** On test les objets par ordre décroissants du ratio profit/poids, en les mettant dans le sac en priorité. */
+    static IntStrategy ratioFirstSearch(KnapsackModels.ChocoModel m, int[] order) {
+        // Curseur restauré au retour arrière : les objets avant lui sont déjà fixés, O(1) amorti par décision
+        IStateInt cursor = m.model.getEnvironment().makeInt(0);
+        return Search.intVarSearch(
+                vars -> {
+                    int k = cursor.get();
+                    while (k < order.length && vars[order[k]].isInstantiated()) k++;
+                    cursor.set(k);
+                    return k < order.length ? vars[order[k]] : null;
+                },
+                var -> 1, // On essaie de mettre les objets en priorité
+                m.x
+        );
+    }
 
-        model.knapsack(x, totalWeight, totalProfit, inst.weights, inst.profits).post();
-        model.setObjective(Model.MAXIMIZE, totalProfit);
+    static Result solveCompleteRatioFirst(Instance inst, long timeLimit) {
+        return solveCompleteRatioFirst(inst, timeLimit, null);
+    }
 
+    static Result solveCompleteRatioFirst(Instance inst, long timeLimit, Incumbent incumbent) {
         int[] order = orderByRatio(inst);
+        KnapsackModels.ChocoModel m = KnapsackModels.chocoDantzig(inst, "Knapsack-Ratio", order);
+        BoolVar[] x = m.x;
+        IntVar totalProfit = m.totalProfit;
 
-        Solver solver = model.getSolver();
-        // On test les objets par ordre décroissants du ratio profit/poids
-        solver.setSearch(Search.intVarSearch(
-                vars -> {
-                    for (int i : order) {
-                        if (!vars[i].isInstantiated()) return vars[i];
-                    }
-                    return null;
-                },
-                var -> 1, // On essaie de mettre les objets en priorité
-                x
-        ));
+        Solver solver = m.model.getSolver();
+        solver.setSearch(ratioFirstSearch(m, order));
 
         solver.limitTime(timeLimit);
+        shareIncumbent(solver, x, totalProfit, incumbent);
 
+        SearchTelemetry telemetry = SearchTelemetry.choco(solver, totalProfit);
         long start = System.currentTimeMillis();
         int bestValue = 0;
 
@@ -350,44 +334,330 @@ public class KnapsackSolver {
         long elapsed = System.currentTimeMillis() - start;
 
         boolean optimal = !solver.isStopCriterionMet();
+        if (optimal && incumbent != null) {
+            bestValue = (int) Math.max(bestValue, incumbent.value());
+            incumbent.close();
+        }
 
-        return new Result(
+        Result r = new Result(
                 inst.name,
                 "Complete_RatioFirst",
                 bestValue,
                 elapsed,
-                (int) solver.getNodeCount(),
+                solver.getNodeCount(),
                 optimal,
                 inst.optimalValue
         );
+        return telemetry.fill(r.withBuildMs(m.buildMs), solver);
     }
 
 
     static Result solveCompleteMILP_ORTools(Instance inst, long timeLimit) {
-        MPSolver solver = MPSolver.createSolver("CBC_MIXED_INTEGER_PROGRAMMING");
-        if (solver == null) return new Result(inst.name, "Complete_MILP_ORTools", 0, 0, 0, false, inst.optimalValue);
+        return solveCompleteMILP_ORTools(inst, timeLimit, null);
+    }
 
-        int n = inst.n;
-        MPVariable[] x = new MPVariable[n];
-        for (int i = 0; i < n; i++) x[i] = solver.makeIntVar(0.0, 1.0, "x_" + i);
+    static Result solveCompleteMILP_ORTools(Instance inst, long timeLimit, Incumbent incumbent) {
+        // Modèle réutilisé d'une instance de même taille à l'autre sur ce thread
+        try (KnapsackModels.MilpModel m = KnapsackModels.milp(inst)) {
+            if (m == null) return new Result(inst.name, "Complete_MILP_ORTools", 0, 0, 0, false, inst.optimalValue);
+            MPSolver solver = m.solver;
+
+            solver.setTimeLimit(timeLimit);
+            // Meilleure solution connue donnée à CBC comme solution de départ
+            if (incumbent != null) m.share(incumbent);
+
+            // Écart relatif nul : par défaut CBC s'arrête à 1e-4 de la borne et annonce OPTIMAL
+            MPSolverParameters params = new MPSolverParameters();
+            params.setDoubleParam(MPSolverParameters.DoubleParam.RELATIVE_MIP_GAP, 0.0);
+
+            SearchTelemetry telemetry = new SearchTelemetry(false); // pas de rappel par solution avec CBC
+            long start = System.currentTimeMillis();
+            MPSolver.ResultStatus status = solver.solve(params);
+            long elapsed = System.currentTimeMillis() - start;
+
+            int bestValue = (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE)
+                    ? (int) Math.round(m.objective.value()) : 0;
+            boolean optimal = (status == MPSolver.ResultStatus.OPTIMAL);
+            if (incumbent != null && bestValue > 0) {
+                incumbent.offer(bestValue, m.taken());
+                if (optimal) incumbent.close();
+            }
+
+            Result r = new Result(inst.name, "Complete_MILP_ORTools", bestValue, elapsed, solver.nodes(), optimal, inst.optimalValue);
+            return telemetry.fill(r.withBuildMs(m.buildMs), null);
+        }
+    }
+
+    static Result solveCompleteDP(Instance inst, long timeLimit) {
+        return solveCompleteDP(inst, timeLimit, null);
+    }
+
+    static Result solveCompleteDP(Instance inst, long timeLimit, Incumbent incumbent) {
+        long start = System.currentTimeMillis();
+
+        // Tableau glissant sur la capacité + table de décisions sur 1 bit par (objet, capacité)
+        KnapsackDP.Outcome dp = KnapsackDP.solve(inst.weights, inst.profits, inst.capacity, start + timeLimit);
+
+        long elapsed = System.currentTimeMillis() - start;
+        int bestValue = (int) dp.value;
+
+        // Valeur exacte : sert de référence pour le gap des autres méthodes
+        if (dp.complete) inst.optimalValue = bestValue;
+        if (incumbent != null) {
+            incumbent.offer(dp.value, dp.taken);
+            if (dp.complete) incumbent.close();
+        }
+
+        return new Result(inst.name, "Complete_DP", bestValue, elapsed, -1, dp.complete, inst.optimalValue);
+    }
+
+    static Result solveCompleteCore(Instance inst, long timeLimit) {
+        return solveCompleteCore(inst, timeLimit, null);
+    }
+
+    static Result solveCompleteCore(Instance inst, long timeLimit, Incumbent incumbent) {
+        long start = System.currentTimeMillis();
+
+        // Noyau extensible autour de l'objet critique (expknap), bornes Dembo-Hammer / Martello-Toth
+        int[] order = orderByRatio(inst);
+        CoreKnapsack.Outcome core = CoreKnapsack.solve(inst.weights, inst.profits, inst.capacity, order, start + timeLimit);
+
+        long elapsed = System.currentTimeMillis() - start;
+        int bestValue = (int) core.value;
+        if (core.optimal) inst.optimalValue = bestValue;
+        if (incumbent != null) {
+            incumbent.offer(core.value, core.taken);
+            if (core.optimal) incumbent.close();
+        }
+
+        return new Result(inst.name, "Complete_Core", bestValue, elapsed, core.nodes, core.optimal, inst.optimalValue);
+    }
+
+    static Result solveCompleteBranchAndBound(Instance inst, long timeLimit) {
+        return solveCompleteBranchAndBound(inst, timeLimit, null, BranchAndBound.DEFAULT_MEMORY_MB);
+    }
+
+    static Result solveCompleteBranchAndBound(Instance inst, long timeLimit, Incumbent incumbent) {
+        return solveCompleteBranchAndBound(inst, timeLimit, incumbent, BranchAndBound.DEFAULT_MEMORY_MB);
+    }
+
+    static Result solveCompleteBranchAndBound(Instance inst, long timeLimit, Incumbent incumbent, int memoryMb) {
+        long start = System.currentTimeMillis();
+        SearchTelemetry telemetry = new SearchTelemetry(true);
+
+        // Meilleur d'abord avec plongées dans l'ordre des ratios, bornes U2 ; profondeur d'abord au-delà de memoryMb
+        int[] order = orderByRatio(inst);
+        BranchAndBound.Outcome bb = BranchAndBound.solve(inst.weights, inst.profits, inst.capacity, order,
+                start + timeLimit, memoryMb, incumbent, telemetry);
+
+        long elapsed = System.currentTimeMillis() - start;
+        int bestValue = (int) bb.value;
+        if (bb.optimal && incumbent != null) {
+            bestValue = (int) Math.max(bestValue, incumbent.value());
+            incumbent.close();
+        }
+        if (bb.optimal) inst.optimalValue = bestValue;
 
-        MPConstraint capacityConstraint = solver.makeConstraint(0.0, inst.capacity, "capacity");
-        for (int i = 0; i < n; i++) capacityConstraint.setCoefficient(x[i], inst.weights[i]);
+        Result r = new Result(inst.name, "Complete_BranchAndBound", bestValue, elapsed, bb.nodes, bb.optimal, inst.optimalValue);
+        return telemetry.fill(r, null);
+    }
 
-        MPObjective objective = solver.objective();
-        for (int i = 0; i < n; i++) objective.setCoefficient(x[i], inst.profits[i]);
-        objective.setMaximization();
+    static Result solveCompleteBranchAndBoundParallel(Instance inst, long timeLimit, int threads) {
+        return solveCompleteBranchAndBoundParallel(inst, timeLimit, null, threads);
+    }
 
-        solver.setTimeLimit(timeLimit);
+    static Result solveCompleteBranchAndBoundParallel(Instance inst, long timeLimit, Incumbent shared, int threads) {
         long start = System.currentTimeMillis();
-        MPSolver.ResultStatus status = solver.solve();
+        Incumbent incumbent = shared != null ? shared : new Incumbent();
+        SearchTelemetry telemetry = new SearchTelemetry(true);
+
+        // Sous-arbres des premiers objets (ordre des ratios) répartis par vol de tâches, borne partagée par l'incumbent
+        int[] order = orderByRatio(inst);
+        ParallelBranchAndBound.Outcome bb = ParallelBranchAndBound.solve(inst.weights, inst.profits, inst.capacity, order,
+                start + timeLimit, threads, incumbent, telemetry);
+
         long elapsed = System.currentTimeMillis() - start;
+        int bestValue = (int) bb.value;
+        if (bb.optimal) {
+            inst.optimalValue = bestValue;
+            incumbent.close();
+        }
 
-        int bestValue = (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE)
-                ? (int) Math.round(objective.value()) : 0;
-        boolean optimal = (status == MPSolver.ResultStatus.OPTIMAL);
+        Result r = new Result(inst.name, "Complete_BranchAndBound_Parallel", bestValue, elapsed, bb.nodes, bb.optimal,
+                inst.optimalValue);
+        r.workerNodes = bb.workerNodes;
+        return telemetry.fill(r, null);
+    }
 
-        return new Result(inst.name, "Complete_MILP_ORTools", bestValue, elapsed, -1, optimal, inst.optimalValue);
+    /**
+     * Lance RatioFirst et DomOverWDeg en même temps sur l'instance avec une borne partagée.
+     * Dès qu'une méthode prouve l'optimalité, l'autre reçoit l'ordre de s'arrêter au nœud suivant : le temps est celui
+     * de la plus rapide. CBC n'en fait pas partie : il ignore interruptSolve et continuerait jusqu'à sa limite de temps.
+     */
+    static Result solveCompletePortfolio(Instance inst, long timeLimit) {
+        return solveCompletePortfolio(inst, timeLimit, null);
+    }
+
+    static Result solveCompletePortfolio(Instance inst, long timeLimit, Incumbent shared) {
+        long start = System.currentTimeMillis();
+        Incumbent incumbent = shared != null ? shared : new Incumbent();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "portfolio-" + inst.name);
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Result> members = new ExecutorCompletionService<>(pool);
+        members.submit(() -> solveCompleteRatioFirst(inst, timeLimit, incumbent));
+        members.submit(() -> solveCompleteDomOverWDeg(inst, timeLimit, incumbent));
+
+        List<Result> finished = new ArrayList<>();
+        long elapsed;
+        try {
+            while (finished.size() < 2 && !incumbent.isClosed()) finished.add(getMember(members.take()));
+            elapsed = System.currentTimeMillis() - start;
+
+            // Les modèles Choco s'arrêtent au nœud suivant : on récupère encore leurs compteurs
+            Future<Result> f;
+            while (finished.size() < 2 && (f = members.poll(200, TimeUnit.MILLISECONDS)) != null) finished.add(getMember(f));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            elapsed = System.currentTimeMillis() - start;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int bestValue = incumbent.hasValue() ? (int) incumbent.value() : 0;
+        boolean optimal = incumbent.isClosed();
+        if (optimal) inst.optimalValue = bestValue;
+
+        // Compteurs cumulés sur les membres (la construction est déjà comprise dans le temps mural), pic de tas maximal
+        Result r = new Result(inst.name, "Complete_Portfolio", bestValue, elapsed, 0, optimal, inst.optimalValue);
+        r.fails = 0;
+        r.backtracks = 0;
+        for (Result member : finished) {
+            r.nodes += Math.max(0, member.nodes);
+            r.buildMs += member.buildMs;
+            r.fails += Math.max(0, member.fails);
+            r.backtracks += Math.max(0, member.backtracks);
+            r.peakHeapMb = Math.max(r.peakHeapMb, member.peakHeapMb);
+        }
+        return r;
+    }
+
+    private static Result getMember(Future<Result> f) throws InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur portfolio: " + e.getCause());
+            return new Result("", "", 0, 0, 0, false, -1);
+        }
+    }
+
+    /** Copies du modèle de Complete_CP_Portfolio par défaut : une par stratégie. */
+    static final int CP_PORTFOLIO_THREADS = 4;
+
+    /**
+     * ParallelPortfolio de Choco : copies du modèle résolues chacune sur son thread, avec des stratégies différentes,
+     * qui se transmettent la meilleure valeur trouvée. Copie k (modulo 4) : RatioFirst sur la borne de Dantzig,
+     * dom/wdeg, recherche par activité, LNS guidé par la propagation ; au-delà de 4, recherches aléatoires de graines distinctes.
+     * Le LNS n'est pas une recherche complète : ajouté comme non fiable, sa fin ne prouve rien.
+     * Nœuds, échecs, retours arrière et temps de construction sont cumulés sur les copies.
+     */
+    static Result solveCompleteCPPortfolio(Instance inst, long timeLimit) {
+        return solveCompleteCPPortfolio(inst, timeLimit, null, CP_PORTFOLIO_THREADS, 0);
+    }
+
+    static Result solveCompleteCPPortfolio(Instance inst, long timeLimit, Incumbent incumbent, int threads, long seed) {
+        // Stratégies fixées ici : sans false, le portfolio remplace la recherche de chaque copie par la sienne
+        ParallelPortfolio portfolio = new ParallelPortfolio(false);
+        SearchTelemetry telemetry = new SearchTelemetry(true);
+        int[] order = orderByRatio(inst);
+        boolean[] complete = new boolean[threads];
+        boolean[] exhausted = new boolean[threads];
+        AtomicBoolean solutionInRound = new AtomicBoolean();
+        long buildMs = 0;
+        for (int k = 0; k < threads; k++) {
+            KnapsackModels.ChocoModel m = k % 4 == 0
+                    ? KnapsackModels.chocoDantzig(inst, "Knapsack-Portfolio-" + k, order)
+                    : KnapsackModels.choco(inst, "Knapsack-Portfolio-" + k);
+            buildMs += m.buildMs;
+            Solver solver = m.model.getSolver();
+            IntVar[] xInt = Arrays.stream(m.x).toArray(IntVar[]::new);
+            complete[k] = true;
+            if (k >= 4) {
+                solver.setSearch(Search.randomSearch(xInt, seed + k));
+            } else if (k == 0) {
+                solver.setSearch(ratioFirstSearch(m, order));
+            } else if (k == 1) {
+                solver.setSearch(Search.domOverWDegSearch(m.x));
+            } else if (k == 2) {
+                solver.setSearch(Search.activityBasedSearch(xInt));
+            } else {
+                LnsConfig config = new LnsConfig();
+                INeighbor neighbor = new PropagationGuidedNeighborhood(xInt, config.relaxCount(inst.n) * Math.log(2), 10, seed);
+                solver.setLNS(neighbor, new TimeCounter(m.model, config.neighborhoodTimeMs + "ms"));
+                solver.setSearch(Search.intVarSearch(new InputOrder<>(m.model), var -> 1, xInt));
+                complete[k] = false;
+            }
+            solver.limitTime(timeLimit);
+            shareIncumbent(solver, m.x, m.totalProfit, incumbent);
+            telemetry.watch(solver, m.totalProfit);
+            watchExhaustion(solver, exhausted, k);
+            // Le portfolio ne termine un tour que sur la solution de la copie qui détient la meilleure valeur :
+            // une copie dépassée entre-temps rend son thread et le tour peut durer jusqu'à la limite de temps.
+            // Toute solution arrête donc les autres copies, qui reprennent au tour suivant.
+            solver.addStopCriterion(solutionInRound::get);
+            solver.plugMonitor((IMonitorSolution) () -> solutionInRound.set(true));
+            portfolio.addModel(m.model, complete[k]);
+        }
+
+        long start = System.currentTimeMillis();
+        int bestValue = 0;
+        boolean optimal = false;
+        // solve() renvoie false aussi quand le tour s'arrête sur une solution qui n'améliore pas : on continue
+        // jusqu'à ce qu'une copie complète ait épuisé sa recherche (optimalité prouvée) ou jusqu'à la limite
+        while (!optimal && System.currentTimeMillis() - start < timeLimit && (incumbent == null || !incumbent.isClosed())) {
+            solutionInRound.set(false);
+            if (portfolio.solve()) {
+                bestValue = Math.max(bestValue, portfolio.getBestModel().getSolver().getBestSolutionValue().intValue());
+            }
+            for (int k = 0; k < threads; k++) optimal |= complete[k] && exhausted[k];
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        if (optimal && incumbent != null) {
+            bestValue = (int) Math.max(bestValue, incumbent.value());
+            incumbent.close();
+        }
+
+        Result r = new Result(inst.name, "Complete_CP_Portfolio", bestValue, elapsed, 0, optimal, inst.optimalValue);
+        telemetry.fill(r.withBuildMs(buildMs), null);
+        r.fails = 0;
+        r.backtracks = 0;
+        for (Model model : portfolio.getModels()) {
+            Solver solver = model.getSolver();
+            r.nodes += solver.getNodeCount();
+            r.fails += solver.getFailCount();
+            r.backtracks += solver.getBackTrackCount();
+        }
+        return r;
+    }
+
+    /**
+     * exhausted[k] : le dernier appel à solve() de la copie k s'est fini sans solution ni arrêt, la recherche est épuisée.
+     * L'état TERMINATED ne suffit pas : Choco le donne aussi après un solve() qui renvoie une solution, et une copie
+     * que le portfolio ne relance pas au dernier tour garde l'état du tour précédent.
+     */
+    private static void watchExhaustion(Solver solver, boolean[] exhausted, int k) {
+        long[] solutions = {0};
+        solver.plugMonitor(new IMonitorClose() {
+            @Override
+            public void afterClose() {
+                long count = solver.getSolutionCount();
+                exhausted[k] = solver.getSearchState() == SearchState.TERMINATED && count == solutions[0];
+                solutions[0] = count;
+            }
+        });
     }
 
     /*static Result solveIncompleteLNS(Instance inst, long timeLimit) {
@@ -494,19 +764,72 @@ public class KnapsackSolver {
     }*/
     
     static Result solveIncompleteLNS(Instance inst, long timeLimit) {
-        Model model = new Model("Knapsack-LNS");
-        BoolVar[] x = model.boolVarArray("x", inst.n);
-        IntVar totalProfit = model.intVar("profit", 0, Arrays.stream(inst.profits).sum());
-        IntVar totalWeight = model.intVar("weight", 0, inst.capacity);
+        return solveIncompleteLNS(inst, timeLimit, new LnsConfig(), null, null);
+    }
 
-        model.knapsack(x, totalWeight, totalProfit, inst.weights, inst.profits).post();
-        model.setObjective(Model.MAXIMIZE, totalProfit);
+    static Result solveIncompleteLNS(Instance inst, long timeLimit, Incumbent incumbent) {
+        return solveIncompleteLNS(inst, timeLimit, new LnsConfig(), null, incumbent);
+    }
+
+    static Result solveIncompleteLNS(Instance inst, long timeLimit, LnsConfig config, boolean[] initial) {
+        return solveIncompleteLNS(inst, timeLimit, config, initial, null);
+    }
+
+    /**
+     * @param initial solution de départ (greedy ou autre méthode) ; null : glouton par ratio,
+     *                ou solution de l'incumbent si elle est meilleure
+     */
+    static Result solveIncompleteLNS(Instance inst, long timeLimit, LnsConfig config, boolean[] initial, Incumbent incumbent) {
+        long start = System.currentTimeMillis();
+
+        int[] order = orderByRatio(inst);
+        int initialValue = 0;
+        if (initial == null) {
+            // Solution de départ : glouton par ratio décroissant
+            initial = new boolean[inst.n];
+            int weight = 0;
+            for (int i : order) {
+                if (weight + inst.weights[i] <= inst.capacity) {
+                    initial[i] = true;
+                    weight += inst.weights[i];
+                    initialValue += inst.profits[i];
+                }
+            }
+            // Les voisinages par bande de ratio améliorent mal une solution éloignée du glouton par ratio :
+            // celle de l'incumbent n'est reprise que si elle fait mieux
+            boolean[] known = incumbent != null ? incumbent.solution() : null;
+            if (known != null && incumbent.value() > initialValue) {
+                initial = known;
+                initialValue = (int) incumbent.value();
+            }
+        } else {
+            for (int i = 0; i < inst.n; i++) if (initial[i]) initialValue += inst.profits[i];
+        }
+
+        KnapsackModels.ChocoModel m = KnapsackModels.choco(inst, "Knapsack-LNS");
+        Model model = m.model;
+        BoolVar[] x = m.x;
+        IntVar totalProfit = m.totalProfit;
+        model.arithm(totalProfit, ">=", initialValue).post(); // on ne repart jamais en dessous de la solution initiale
 
         Solver solver = model.getSolver();
 
-        // voisinage : relaxation aléatoire de 15% des variables
+        // Solution initiale transmise à Choco : le premier voisinage est construit autour d'elle
         IntVar[] xInt = Arrays.stream(x).toArray(IntVar[]::new);
-        solver.setLNS(INeighborFactory.propagationGuided(xInt)); // amélioration possible : définir la solution initiale à partir de la solution greedy
+        Solution bootstrap = new Solution(model, xInt);
+        for (int i = 0; i < inst.n; i++) bootstrap.setIntVal(x[i], initial[i] ? 1 : 0);
+
+        int relaxCount = config.relaxCount(inst.n);
+        INeighbor neighbor;
+        if (config.neighborhood == LnsConfig.Neighborhood.PROPAGATION_GUIDED) {
+            // La taille du fragment est exprimée en log de l'espace de recherche : ln(2) par booléen libre
+            neighbor = new PropagationGuidedNeighborhood(xInt, relaxCount * Math.log(2), 10, config.seed);
+        } else {
+            int breakPos = KnapsackBounds.breakItem(KnapsackBounds.permute(inst.weights, order), inst.capacity);
+            neighbor = new KnapsackNeighborhood(xInt, config.neighborhood, order, breakPos, relaxCount, config.seed);
+        }
+        // Nouveau voisinage dès que le temps alloué au précédent est écoulé
+        solver.setLNS(neighbor, new TimeCounter(model, config.neighborhoodTimeMs + "ms"), bootstrap);
 
         // Stratégie Simple repair
         solver.setSearch(Search.intVarSearch(
@@ -520,22 +843,26 @@ public class KnapsackSolver {
                 x
         ));
 
-        solver.limitTime(timeLimit);
+        solver.limitTime(Math.max(1, timeLimit - (System.currentTimeMillis() - start)));
+        shareIncumbent(solver, x, totalProfit, incumbent);
 
-        long start = System.currentTimeMillis();
-        solver.solve();
+        SearchTelemetry telemetry = SearchTelemetry.choco(solver, totalProfit);
+        telemetry.solution(initialValue); // la solution de départ compte comme la première
+
+        int bestValue = initialValue;
+        while (solver.solve()) bestValue = Math.max(bestValue, totalProfit.getValue());
         long elapsed = System.currentTimeMillis() - start;
-        int bestValue = solver.getBestSolutionValue().intValue();
 
-        return new Result(
+        Result r = new Result(
             inst.name, 
             "Incomplete_LNS", 
             bestValue, 
             elapsed, 
-            (int)solver.getNodeCount(), 
+            solver.getNodeCount(), 
             false, 
             inst.optimalValue
         );
+        return telemetry.fill(r.withBuildMs(m.buildMs), solver);
     }
 
 
@@ -628,79 +955,66 @@ public class KnapsackSolver {
     
     
     static Result solveIncompleteGreedy(Instance inst, long timeLimit) {
-        long start = System.currentTimeMillis();
+        return solveIncompleteGreedy(inst, timeLimit, null);
+    }
 
-        int n = inst.n;
-        int capacity = inst.capacity;
+    static Result solveIncompleteGreedy(Instance inst, long timeLimit, Incumbent incumbent) {
+        return solveIncompleteGreedy(inst, timeLimit, incumbent, new Random()); // aléatoire
+    }
 
-        int totalWeight = 0;
-        int totalProfit = 0;
+    static Result solveIncompleteGreedy(Instance inst, long timeLimit, Incumbent incumbent, Random rand) {
+        long start = System.currentTimeMillis();
 
         double alpha = 0.9; // paramètre probabiliste
-        Random rand = new Random(); // aléatoire
-
-        // Ensemble des composants candidats
-        List<Integer> candidates = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            candidates.add(i);
-        }
-
-        while (!candidates.isEmpty()) {
-
-            // 1️ Filtrer les objets admissibles
-            List<Integer> feasible = new ArrayList<>();
-            for (int i : candidates) {
-                if (totalWeight + inst.weights[i] <= capacity) {
-                    feasible.add(i);
-                }
-            }
 
-            if (feasible.isEmpty()) break;
+        // Tirage proportionnel à h(ci)^alpha, h(ci) = profit / poids, via un arbre de sommes
+        ProbabilisticGreedy greedy = new ProbabilisticGreedy(inst, alpha);
+        boolean[] taken = new boolean[inst.n];
+        int totalProfit = (int) greedy.run(rand, taken);
+        if (incumbent != null) incumbent.offer(totalProfit, taken);
 
-            // 2️ Calcul des h(ci)^alpha
-            double[] h = new double[feasible.size()];
-            double sumH = 0.0;
+        long elapsed = System.currentTimeMillis() - start;
 
-            for (int i = 0; i < feasible.size(); i++) {
-                int idx = feasible.get(i);
-                h[i] = Math.pow((double) inst.profits[idx] / inst.weights[idx], alpha);
-                sumH += h[i];
-            }
+        return new Result(
+                inst.name,
+                "Probabilistic_Greedy",
+                totalProfit,
+                elapsed,
+                0,
+                false,
+                inst.optimalValue
+        );
+    }
 
-            // 3️ Tirage probabiliste
-            double r = rand.nextDouble();
-            double cumulative = 0.0;
-            int chosen = feasible.get(0);
+    static Result solveIncompleteGreedyMultiStart(Instance inst, long timeLimit) {
+        return solveIncompleteGreedyMultiStart(inst, timeLimit, (Incumbent) null);
+    }
 
-            for (int i = 0; i < feasible.size(); i++) {
-                cumulative += h[i] / sumH;
-                if (r <= cumulative) {
-                    chosen = feasible.get(i);
-                    break;
-                }
-            }
+    static Result solveIncompleteGreedyMultiStart(Instance inst, long timeLimit, Incumbent incumbent) {
+        return solveIncompleteGreedyMultiStart(inst, timeLimit, Long.MAX_VALUE,
+                Runtime.getRuntime().availableProcessors(), System.nanoTime(), incumbent);
+    }
 
-            // 4️ Ajouter à la solution
-            totalWeight += inst.weights[chosen];
-            totalProfit += inst.profits[chosen];
+    // Relance le glouton probabiliste + recherche locale sur plusieurs threads et garde la meilleure solution
+    static Result solveIncompleteGreedyMultiStart(Instance inst, long timeLimit, long restarts, int threads, long seed, Incumbent incumbent) {
+        long start = System.currentTimeMillis();
 
-            // 5️ Mise à jour des candidats
-            candidates.remove(Integer.valueOf(chosen));
-        }
+        double alpha = 0.9; // même paramètre que solveIncompleteGreedy
+        SearchTelemetry telemetry = new SearchTelemetry(true);
+        MultiStartGreedy.Outcome grasp = MultiStartGreedy.solve(inst, alpha, timeLimit, restarts, threads, seed, incumbent, telemetry);
 
         long elapsed = System.currentTimeMillis() - start;
 
-        return new Result(
+        Result r = new Result(
                 inst.name,
-                "Probabilistic_Greedy",
-                totalProfit,
+                "Probabilistic_Greedy_MultiStart",
+                (int) grasp.value,
                 elapsed,
-                0,
+                grasp.restarts, // nombre de relances
                 false,
                 inst.optimalValue
         );
-
-        // amélioration possible : relancer plusieurs fois et garder la meilleure solution.
+        return telemetry.fill(r, null);
     }
 
 
@@ -708,25 +1022,14 @@ public class KnapsackSolver {
     // ===================== Export CSV =====================
     static void exportToCSV(List<Result> results, List<Instance> instances, String filename) {
         try (PrintWriter writer = new PrintWriter(new File(filename))) {
-            writer.println("Instance,Difficulty,Class,n,Capacity,TotalWeight,TotalProfit,Method,Value,Time(ms),Nodes,Optimal,OptimalKnown,Gap(%)");
+            writer.println(ResultWriter.HEADER);
 
+            Map<String, Instance> byName = ResultWriter.indexByName(instances);
             for (Result r : results) {
-                Instance inst = instances.stream().filter(i -> i.name.equals(r.instance)).findFirst().orElse(null);
+                Instance inst = byName.get(r.instance);
                 if (inst == null) continue;
-
-                int totalWeight = Arrays.stream(inst.weights).sum();
-                int totalProfit = Arrays.stream(inst.profits).sum();
-
-                // Gestion multiplateforme
-                String cls = "Unknown";
-                if (r.instance.matches("^(easy|medium|hard)_.*")) cls = "Generated";
-                else if (inst.name.contains(File.separator)) cls = inst.name.split(Pattern.quote(File.separator))[0];
-
-                writer.printf("%s,%s,%s,%d,%d,%d,%d,%s,%d,%d,%d,%b,%d,%.2f\n",
-                        inst.name, inst.difficulty, cls, inst.n, inst.capacity,
-                        totalWeight, totalProfit, r.method, r.bestValue, r.timeMs,
-                        r.nodes, r.optimal, r.optimalKnown, r.gapPercent
-                );
+                writer.print(ResultWriter.row(inst, r));
+                writer.print('\n');
             }
             System.out.println("\nRésultats exportés vers: " + filename);
         } catch (Exception e) {
@@ -735,7 +1038,8 @@ public class KnapsackSolver {
     }
 
     // ===================== Génération de rapport console =====================
-    static void generateReport(List<Result> results, List<Instance> instances) {
+    /** @param difficulties difficulté de chaque instance, par nom (les instances elles-mêmes ne sont pas conservées) */
+    static void generateReport(List<Result> results, Map<String, String> difficulties) {
         System.out.println("\n\n=== RAPPORT D'ANALYSE ===\n");
 
         // Regrouper les résultats par difficulté
@@ -745,7 +1049,8 @@ public class KnapsackSolver {
         byDifficulty.put("difficile", new ArrayList<>());
 
         for (Result r : results) {
-            instances.stream().filter(i -> i.name.equals(r.instance)).findFirst().ifPresent(inst -> byDifficulty.get(inst.difficulty).add(r));
+            String difficulty = difficulties.get(r.instance);
+            if (difficulty != null) byDifficulty.get(difficulty).add(r);
         }
 
         for (String diff : Arrays.asList("facile", "moyen", "difficile")) {
@@ -761,57 +1066,81 @@ public class KnapsackSolver {
                 List<Result> methodResults = byMethod.get(method);
                 double avgValue = methodResults.stream().mapToInt(r -> r.bestValue).average().orElse(0);
                 double avgTime = methodResults.stream().mapToLong(r -> r.timeMs).average().orElse(0);
+                double avgBuild = methodResults.stream().mapToLong(r -> r.buildMs).average().orElse(0);
                 long optimalCount = methodResults.stream().filter(r -> r.optimal).count();
 
-                System.out.printf("%-25s : Valeur moy=%.0f, Temps moy=%.0fms, Optimaux=%d/%d\n",
-                        method, avgValue, avgTime, optimalCount, methodResults.size());
+                System.out.printf("%-25s : Valeur moy=%.0f, Temps moy=%.0fms (+%.0fms modèle), Optimaux=%d/%d\n",
+                        method, avgValue, avgTime, avgBuild, optimalCount, methodResults.size());
             }
         }
     }
 
     // ===================== Main mis à jour =====================
     public static void main(String[] args) {
+        BenchmarkCli.Options options = BenchmarkCli.parse(args);
+        if (options == null) return;
+
         Loader.loadNativeLibraries();
 
-        List<Instance> instances = loadBenchmarkInstances();
-        if (instances.isEmpty()) {
-            System.err.println("Aucune instance disponible. Arrêt du programme.");
+        // Instances lues au fil de la résolution : la première est résolue pendant que les suivantes se chargent
+        Stream<Instance> source;
+        try {
+            KplibLoader loader = options.generate.isEmpty() ? BenchmarkCli.selection(options) : null;
+            if (!options.generate.isEmpty()) {
+                source = BenchmarkCli.generated(options);
+            } else if (loader != null && !loader.files().isEmpty()) {
+                source = loader.stream();
+            } else {
+                System.out.println("Aucune instance trouvée. Génération d'instances de secours...");
+                source = generateFallbackInstances().stream();
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lecture kplib: " + e.getMessage());
             return;
         }
 
+        // Méthodes lancées sur chaque instance (heavy = Choco / CBC), dans l'ordre de --methods
+        // La DP, si elle est demandée, passe d'abord sur chaque instance : elle renseigne optimalValue pour le gap des autres
+        Map<String, BenchmarkRunner.Method> registry = BenchmarkCli.methodRegistry(options);
+        BenchmarkRunner.Method dp = options.methods.contains("Complete_DP") ? registry.get("Complete_DP") : null;
+        List<BenchmarkRunner.Method> methods = options.methods.stream()
+                .filter(m -> !m.equals("Complete_DP"))
+                .map(registry::get)
+                .collect(Collectors.toList());
+
+        // Seule la difficulté est gardée pour le rapport : les tableaux des instances sont libérés au fil du flux
+        Map<String, String> difficulties = new HashMap<>();
         List<Result> allResults = new ArrayList<>();
-        long timeLimit = 5 * 60 * 1000; // 10 minutes
+        try (OptimumStore optima = OptimumStore.open(options.optima); Stream<Instance> stream = source) {
+            System.out.println(optima.size() + " optima connus dans " + options.optima);
+
+            if (options.precomputeOptima) {
+                System.out.println("=== Calcul des optima manquants ===");
+                int added = optima.precompute(stream, options.timeLimit, Runtime.getRuntime().availableProcessors());
+                System.out.println(added + " optima ajoutés");
+                return;
+            }
 
-        System.out.println("=== Résolution en cours ===");
-        for (Instance inst : instances) {
-            System.out.println("\nInstance: " + inst.name + " (n=" + inst.n + ", capacité=" + inst.capacity + ", difficulté=" + inst.difficulty + ")");
-            
-            /*Result r1 = solveCompleteFirstFail(inst, timeLimit);
-            allResults.add(r1);
-            System.out.println("  - Complete FirstFail : Valeur=" + r1.bestValue + ", Temps=" + r1.timeMs + "ms");*/
-            Result r1 = solveCompleteRatioFirst(inst, timeLimit);
-            allResults.add(r1);
-            System.out.println("  - Complete RatioFirst : Valeur=" + r1.bestValue + ", Temps=" + r1.timeMs + "ms");
-            
-            Result r2 = solveCompleteDomOverWDeg(inst, timeLimit);
-            allResults.add(r2);
-            System.out.println("  - Complete DomOverWDeg : Valeur=" + r2.bestValue + ", Temps=" + r2.timeMs + "ms");
-            
-            Result r3 = solveCompleteMILP_ORTools(inst, timeLimit);
-            allResults.add(r3);
-            System.out.println("  - Complete MILP OR-Tools : Valeur=" + r3.bestValue + ", Temps=" + r3.timeMs + "ms");
-            
-            Result r5 = solveIncompleteGreedy(inst, timeLimit);
-            allResults.add(r5);
-            System.out.println("  - Incomplete Greedy : Valeur=" + r5.bestValue + ", Temps=" + r5.timeMs + "ms");
-            
-            Result r4 = solveIncompleteLNS(inst, timeLimit);
-            allResults.add(r4);
-            System.out.println("  - Incomplete LNS : Valeur=" + r4.bestValue + ", Temps=" + r4.timeMs + "ms");
-            
+            try (ResultWriter csv = new ResultWriter(options.output, options.resume);
+                 TraceWriter traces = options.trace != null ? new TraceWriter(options.trace, options.resume) : null) {
+                if (csv.doneCount() > 0) System.out.println("Reprise : " + csv.doneCount() + " résultats déjà présents dans " + options.output);
+
+                System.out.println("=== Résolution en cours ===");
+                BenchmarkRunner runner = new BenchmarkRunner(options.threads, 1)
+                        .withOptimumStore(optima)
+                        .withSharedIncumbent(options.shareIncumbent)
+                        .withTraceWriter(traces);
+                allResults.addAll(runner.run(stream.peek(inst -> difficulties.putIfAbsent(inst.name, inst.difficulty)), dp, methods, options.timeLimit, csv));
+                System.out.println("\nRésultats exportés vers: " + options.output);
+                if (traces != null) System.out.println("Traces de convergence: " + options.trace);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur export CSV: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         }
 
-        generateReport(allResults, instances);
-        exportToCSV(allResults, instances, "results.csv");
+        generateReport(allResults, difficulties);
     }
 }
@@ -10,7 +10,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
-import java.util.Random;
 
 public class Knapsack_MILP_ORTools {
 
@@ -36,7 +35,7 @@ public class Knapsack_MILP_ORTools {
                 // Génération instance
                 int[] w = new int[n];
                 int[] v = new int[n];
-                generate_profit_ceiling_instances(w, v, n, R, H, d);
+                generate_profit_ceiling_instances(w, v, n, R, H, d, h); // une graine par instance
 
                 int C = capacity_generator(w, ((h - 1) % H) + 1, H);
 
@@ -130,12 +129,9 @@ public class Knapsack_MILP_ORTools {
     // -------------------------
     // Helpers: generate instances
     // -------------------------
-    private static void generate_profit_ceiling_instances(int[] weights, int[] values, int n, int r, int H, int d) {
-        Random rng = new Random(123456L); // seed fixe pour reproductibilité
-        for (int i = 0; i < n; i++) {
-            weights[i] = rng.nextInt(r) + 1; // entre 1 et r
-            values[i] = d * (int) Math.ceil((double) weights[i] / d);
-        }
+    private static void generate_profit_ceiling_instances(int[] weights, int[] values, int n, int r, int H, int d, long seed) {
+        // Graine propre à chaque instance : reproductible, sans redonner les mêmes objets à toutes les instances d'une taille
+        InstanceGenerator.profitCeiling(d, r, seed, weights, values); // poids entre 1 et r
     }
 
     private static int capacity_generator(int[] weights, int h, int H) {
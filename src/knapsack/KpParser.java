@@ -0,0 +1,149 @@
+package knapsack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture des fichiers .kp de kplib : n, capacité, puis n couples « profit poids ».
+ * Le fichier est projeté en mémoire (FileChannel.map) et les entiers sont lus directement dans les octets,
+ * sans passer par des String : aucune allocation par ligne, même pour n = 10^4.
+ * Les ressources du classpath (fichiers dans un jar) sont lues d'un bloc dans un ByteBuffer.
+ */
+final class KpParser {
+
+    /** Erreur de format, localisée dans le fichier (ligne et colonne à partir de 1). */
+    static final class FormatException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        final int line;
+        final int column;
+
+        FormatException(String message, int line, int column) {
+            super("ligne " + line + ", colonne " + column + " : " + message);
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    /** Contenu brut d'un fichier .kp. */
+    static final class Data {
+        int n;
+        int capacity;
+        int[] profits;
+        int[] weights;
+    }
+
+    private final ByteBuffer buf;
+    private int pos;
+    private int line = 1;
+    private int lineStart;   // position du premier octet de la ligne courante
+    private int item = -1;   // objet en cours de lecture, pour les messages d'erreur
+
+    private KpParser(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * Lit un fichier, ou à défaut la ressource du même nom sur le classpath.
+     * @return null si ni l'un ni l'autre n'existe
+     */
+    static Data read(String filepath) throws IOException {
+        Path path = Path.of(filepath);
+        if (Files.isRegularFile(path)) return read(path);
+        try (InputStream is = KpParser.class.getClassLoader().getResourceAsStream(filepath)) {
+            if (is == null) return null;
+            return parse(ByteBuffer.wrap(is.readAllBytes()));
+        }
+    }
+
+    /** Lit un fichier ; hors du système de fichiers par défaut (jar ouvert en FileSystem), lecture d'un bloc. */
+    static Data read(Path path) throws IOException {
+        if (path.getFileSystem() != FileSystems.getDefault()) return parse(ByteBuffer.wrap(Files.readAllBytes(path)));
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("fichier trop gros (" + size + " octets)");
+            // Le mapping reste valide après la fermeture du canal
+            ByteBuffer buf = size == 0 ? ByteBuffer.allocate(0) : ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(buf);
+        }
+    }
+
+    static Data parse(ByteBuffer buf) throws FormatException {
+        KpParser parser = new KpParser(buf);
+        Data data = new Data();
+        data.n = parser.nextInt("nombre d'objets");
+        if (data.n < 0) throw parser.error("nombre d'objets négatif: " + data.n);
+        data.capacity = parser.nextInt("capacité");
+
+        data.profits = new int[data.n];
+        data.weights = new int[data.n];
+        for (int i = 0; i < data.n; i++) {
+            parser.item = i;
+            data.profits[i] = parser.nextInt("profit");
+            data.weights[i] = parser.nextInt("poids");
+        }
+        return data;
+    }
+
+    /** @param what nom de la valeur attendue (constante : aucune chaîne construite tant qu'il n'y a pas d'erreur) */
+    private int nextInt(String what) throws FormatException {
+        int limit = buf.limit();
+        // Espaces et fins de ligne (\n, \r\n ou \r seul)
+        while (pos < limit) {
+            byte b = buf.get(pos);
+            if (b == ' ' || b == '\t') {
+                pos++;
+            } else if (b == '\n' || b == '\r') {
+                pos++;
+                if (b == '\r' && pos < limit && buf.get(pos) == '\n') pos++;
+                line++;
+                lineStart = pos;
+            } else {
+                break;
+            }
+        }
+        if (pos >= limit) throw error("fin de fichier, " + what + " attendu");
+
+        int tokenStart = pos;
+        boolean negative = buf.get(pos) == '-';
+        if (negative) pos++;
+        long value = 0;
+        int digits = 0;
+        while (pos < limit) {
+            int d = buf.get(pos) - '0';
+            if (d < 0 || d > 9) break;
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                pos = tokenStart;
+                throw error(what + " hors de l'intervalle des int");
+            }
+            pos++;
+            digits++;
+        }
+        if (digits == 0 || (pos < limit && !isSeparator(buf.get(pos)))) {
+            pos = tokenStart;
+            throw error(what + " attendu");
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) {
+            pos = tokenStart;
+            throw error(what + " hors de l'intervalle des int");
+        }
+        return (int) value;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private FormatException error(String message) {
+        if (item >= 0) message += " (objet " + (item + 1) + ")";
+        return new FormatException(message, line, pos - lineStart + 1);
+    }
+}
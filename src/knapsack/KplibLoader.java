@@ -0,0 +1,220 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parcours d'une arborescence kplib (classe / nXXXXX / RYYYYY / sNNN.kp) avec filtres par classe, taille ou glob.
+ * Les fichiers sont lus en parallèle mais rendus dans l'ordre, sous forme de Stream paresseux :
+ * au plus `window` instances sont chargées d'avance, ce qui borne la mémoire même sur les ~3000 fichiers de kplib
+ * et permet de commencer la résolution dès la première instance.
+ */
+final class KplibLoader {
+
+    static final int DEFAULT_WINDOW = 16;
+
+    private final Path root;
+    private final List<String> classPrefixes = new ArrayList<>();
+    private final Set<Integer> sizes = new HashSet<>();
+    private PathMatcher glob;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int window = DEFAULT_WINDOW;
+
+    KplibLoader(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Racine kplib : dossier du répertoire courant, sinon ressource du classpath (dossier ou jar).
+     * @return null si introuvable
+     */
+    static KplibLoader locate(String dir) throws IOException {
+        Path path = Path.of(dir);
+        if (Files.isDirectory(path)) return new KplibLoader(path);
+
+        URL url = KplibLoader.class.getClassLoader().getResource(dir);
+        if (url == null) return null;
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem fs;
+                try {
+                    fs = FileSystems.newFileSystem(uri, Map.of());
+                } catch (FileSystemAlreadyExistsException e) {
+                    fs = FileSystems.getFileSystem(uri);
+                }
+                return new KplibLoader(fs.getPath(dir));
+            }
+            return new KplibLoader(Path.of(uri));
+        } catch (URISyntaxException e) {
+            throw new IOException("Ressource invalide: " + url, e);
+        }
+    }
+
+    /** Classes retenues, par préfixe du nom de dossier (« 02 » ou « 02StronglyCorrelated ») ; toutes si aucun. */
+    KplibLoader classes(String... prefixes) {
+        classPrefixes.addAll(Arrays.asList(prefixes));
+        return this;
+    }
+
+    /** Tailles n retenues (dossiers nXXXXX) ; toutes si aucune. */
+    KplibLoader sizes(int... n) {
+        for (int size : n) sizes.add(size);
+        return this;
+    }
+
+    /** Glob sur le chemin relatif à la racine, par exemple "02StronglyCorrelated/n00050/R01000/s00?.kp". */
+    KplibLoader glob(String pattern) {
+        this.glob = root.getFileSystem().getPathMatcher("glob:" + pattern);
+        return this;
+    }
+
+    KplibLoader threads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Nombre de threads invalide: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /** Nombre maximal d'instances lues d'avance. */
+    KplibLoader window(int window) {
+        if (window < 1) throw new IllegalArgumentException("Fenêtre invalide: " + window);
+        this.window = window;
+        return this;
+    }
+
+    /** Fichiers retenus, triés par chemin (seuls les chemins sont gardés en mémoire). */
+    List<Path> files() throws IOException {
+        try (Stream<Path> walk = Files.walk(root, 4)) {
+            return walk.filter(p -> p.getFileName() != null && p.getFileName().toString().endsWith(".kp"))
+                    .filter(Files::isRegularFile)
+                    .filter(this::accept)
+                    .sorted(Comparator.comparing(p -> root.relativize(p).toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private boolean accept(Path file) {
+        Path rel = root.relativize(file);
+        if (rel.getNameCount() != 4) return false;
+        String cls = rel.getName(0).toString();
+        if (!classPrefixes.isEmpty() && classPrefixes.stream().noneMatch(cls::startsWith)) return false;
+        if (!sizes.isEmpty() && !sizes.contains(sizeOf(rel))) return false;
+        return glob == null || glob.matches(rel);
+    }
+
+    /** Taille lue dans le nom de dossier nXXXXX, -1 si illisible. */
+    static int sizeOf(Path rel) {
+        String dir = rel.getName(1).toString();
+        if (dir.length() < 2 || dir.charAt(0) != 'n') return -1;
+        try {
+            return Integer.parseInt(dir.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Même découpage que les listes historiques : n00050 faciles, n00100 moyens, au-delà difficiles. */
+    static String difficultyOf(int n) {
+        if (n <= 50) return "facile";
+        if (n <= 100) return "moyen";
+        return "difficile";
+    }
+
+    /**
+     * Instances dans l'ordre de files(). Les fichiers illisibles sont signalés sur System.err et sautés.
+     * Le Stream doit être fermé s'il n'est pas consommé jusqu'au bout (arrêt des threads de lecture).
+     */
+    Stream<Instance> stream() throws IOException {
+        List<Path> files = files();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, files.size())), r -> {
+            Thread t = new Thread(r, "kplib-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        Iterator<Instance> it = new OrderedWindow(files, pool);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)
+                .filter(Objects::nonNull)
+                .onClose(pool::shutdownNow);
+    }
+
+    private Instance load(Path file) {
+        Path rel = root.relativize(file);
+        String name = rel.toString().replace(rel.getFileSystem().getSeparator(), "_").replace(".kp", "");
+        return KnapsackSolver.readInstance(file, name, difficultyOf(sizeOf(rel)));
+    }
+
+    /** Itérateur qui garde au plus `window` lectures en cours et rend les résultats dans l'ordre de soumission. */
+    private final class OrderedWindow implements Iterator<Instance> {
+        private final List<Path> files;
+        private final ExecutorService pool;
+        private final ArrayDeque<Future<Instance>> pending = new ArrayDeque<>();
+        private int next;
+
+        OrderedWindow(List<Path> files, ExecutorService pool) {
+            this.files = files;
+            this.pool = pool;
+            fill();
+        }
+
+        private void fill() {
+            while (pending.size() < window && next < files.size()) {
+                Path file = files.get(next++);
+                pending.add(pool.submit(() -> load(file)));
+            }
+            if (pending.isEmpty()) pool.shutdown();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Instance next() {
+            if (pending.isEmpty()) throw new NoSuchElementException();
+            Future<Instance> head = pending.poll();
+            try {
+                return head.get(); // null si la lecture a échoué, filtré par stream()
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+                throw new IllegalStateException("Chargement interrompu", e);
+            } catch (ExecutionException e) {
+                System.err.println("Erreur lecture: " + e.getCause());
+                return null;
+            } finally {
+                fill();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package knapsack;
+
+/**
+ * Paramètres de solveIncompleteLNS.
+ */
+class LnsConfig {
+
+    enum Neighborhood {
+        RANDOM,             // variables relâchées tirées au hasard
+        RATIO_BAND,         // bande d'objets contigus dans l'ordre par ratio, autour de l'objet critique
+        PROPAGATION_GUIDED  // voisinage guidé par la propagation de Choco
+    }
+
+    Neighborhood neighborhood = Neighborhood.RATIO_BAND;
+    double relaxRatio = 0.15;       // part des variables relâchées à chaque voisinage
+    long neighborhoodTimeMs = 100;  // temps max passé sur un voisinage avant d'en tirer un nouveau
+    long seed = 0;
+
+    LnsConfig() {}
+
+    LnsConfig(Neighborhood neighborhood, double relaxRatio, long neighborhoodTimeMs, long seed) {
+        this.neighborhood = neighborhood;
+        this.relaxRatio = relaxRatio;
+        this.neighborhoodTimeMs = neighborhoodTimeMs;
+        this.seed = seed;
+    }
+
+    /** Nombre de variables relâchées pour n objets (au moins 1). */
+    int relaxCount(int n) {
+        return Math.max(1, Math.min(n, (int) Math.round(relaxRatio * n)));
+    }
+}
@@ -0,0 +1,123 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.util.Arrays;
+
+/**
+ * Recherche locale sur une solution du sac à dos : ajout d'un objet (1-flip) ou échange d'un objet pris
+ * contre un objet non pris (swap), en appliquant à chaque passe le meilleur mouvement améliorant.
+ * Les objets non pris sont parcourus par poids croissant avec le meilleur profit cumulé,
+ * ce qui donne le meilleur partenaire d'échange par recherche dichotomique : O(n log n) par passe.
+ * Les tableaux de travail sont alloués une fois, une instance par thread.
+ */
+final class LocalSearch {
+
+    private final int[] weights;
+    private final int[] profits;
+    private final int capacity;
+    private final int[] byWeightAsc;  // tous les objets par poids croissant
+    private final int[] out;          // objets non pris, par poids croissant
+    private final int[] bestUpTo;     // bestUpTo[k] = objet de profit max parmi out[0..k]
+
+    LocalSearch(Instance inst) {
+        this.weights = inst.weights;
+        this.profits = inst.profits;
+        this.capacity = inst.capacity;
+        Integer[] idx = new Integer[inst.n];
+        for (int i = 0; i < inst.n; i++) idx[i] = i;
+        Arrays.sort(idx, (i, j) -> Integer.compare(weights[i], weights[j]));
+        this.byWeightAsc = Arrays.stream(idx).mapToInt(Integer::intValue).toArray();
+        this.out = new int[inst.n];
+        this.bestUpTo = new int[inst.n];
+    }
+
+    /** Copie pour un autre thread : l'ordre par poids est partagé, les tableaux de travail sont dupliqués. */
+    private LocalSearch(LocalSearch other) {
+        this.weights = other.weights;
+        this.profits = other.profits;
+        this.capacity = other.capacity;
+        this.byWeightAsc = other.byWeightAsc;
+        this.out = new int[other.out.length];
+        this.bestUpTo = new int[other.bestUpTo.length];
+    }
+
+    LocalSearch copy() {
+        return new LocalSearch(this);
+    }
+
+    /**
+     * Améliore taken sur place jusqu'à un optimum local ou la deadline.
+     * @return profit de la solution finale
+     */
+    long improve(boolean[] taken, long deadline) {
+        long profit = 0, weight = 0;
+        for (int i = 0; i < taken.length; i++) {
+            if (taken[i]) {
+                profit += profits[i];
+                weight += weights[i];
+            }
+        }
+
+        while (System.currentTimeMillis() <= deadline) {
+            int m = 0;
+            for (int j : byWeightAsc) {
+                if (taken[j]) continue;
+                out[m] = j;
+                bestUpTo[m] = (m > 0 && profits[bestUpTo[m - 1]] >= profits[j]) ? bestUpTo[m - 1] : j;
+                m++;
+            }
+            if (m == 0) break;
+
+            long residual = capacity - weight;
+            int bestIn = -1, bestOut = -1;
+            long bestDelta = 0;
+
+            // 1-flip : meilleur objet qui rentre dans la place libre
+            int k = lastFitting(m, residual);
+            if (k >= 0) {
+                bestOut = bestUpTo[k];
+                bestDelta = profits[bestOut];
+            }
+            // swap : pour chaque objet pris, meilleur objet non pris qui rentre à sa place
+            for (int i = 0; i < taken.length; i++) {
+                if (!taken[i]) continue;
+                k = lastFitting(m, residual + weights[i]);
+                if (k < 0) continue;
+                int j = bestUpTo[k];
+                long delta = (long) profits[j] - profits[i];
+                if (delta > bestDelta) {
+                    bestDelta = delta;
+                    bestIn = i;
+                    bestOut = j;
+                }
+            }
+            if (bestDelta <= 0) break;
+
+            taken[bestOut] = true;
+            profit += profits[bestOut];
+            weight += weights[bestOut];
+            if (bestIn >= 0) {
+                taken[bestIn] = false;
+                profit -= profits[bestIn];
+                weight -= weights[bestIn];
+            }
+        }
+        return profit;
+    }
+
+    /** Dernière position k de out telle que weights[out[k]] <= limit, -1 sinon. */
+    private int lastFitting(int m, long limit) {
+        int lo = 0, hi = m - 1, k = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (weights[out[mid]] <= limit) {
+                k = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return k;
+    }
+}
@@ -52,7 +52,7 @@ public class ManualInstancesTest
                 */
                 int[] w = new int[n]; // weight of items
                 int[] v = new int[n]; // value of items
-                profit_ceiling_instances(w, v, n, R, H, d);
+                profit_ceiling_instances(w, v, n, R, H, d, h); // graine = numéro d'instance
                 System.out.printf("Weights: %s\n", Arrays.toString(w));
                 System.out.printf("Values: %s\n", Arrays.toString(v));
                 int C = capacity_generator(w, (h - 1) % H + 1, H); // Capacity of current instance, keeping the instance index between [1 and 10]
@@ -152,11 +152,8 @@ public class ManualInstancesTest
     /**
      * Generator of profit ceiling instances
      */
-    private static void profit_ceiling_instances(int[] weights, int[] values, int n, int r, int H, int d) {
-        for (int i = 0; i < n; i++) {
-            weights[i] = (int) (Math.random() * r) + 1; // 1 to r
-            values[i] = (int) (d * Math.ceil((double) weights[i] / d));
-        }
+    private static void profit_ceiling_instances(int[] weights, int[] values, int n, int r, int H, int d, long seed) {
+        InstanceGenerator.profitCeiling(d, r, seed, weights, values); // weights in 1 to r
     }
 
 
@@ -0,0 +1,109 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GRASP multi-départ : le glouton probabiliste est relancé sur plusieurs threads, chaque solution est
+ * améliorée par recherche locale (LocalSearch) et on garde la meilleure.
+ * Chaque thread a son propre SplittableRandom dérivé de la graine : les tirages ne sont jamais partagés.
+ * Les relances s'arrêtent dès que la borne supérieure (U2 de Martello-Toth, ou optimum connu) est atteinte,
+ * ou que l'incumbent est fermé par une méthode complète.
+ */
+final class MultiStartGreedy {
+
+    static class Outcome {
+        long value;
+        boolean[] taken;
+        long restarts;   // nombre total de constructions + recherches locales
+    }
+
+    private MultiStartGreedy() {}
+
+    /**
+     * @param restarts nombre maximal de relances (réparties entre les threads), Long.MAX_VALUE pour n'être limité que par le temps
+     * @param incumbent chaque amélioration y est publiée dès qu'elle est trouvée (peut être null)
+     * @param telemetry reçoit aussi chaque amélioration, tous threads confondus (peut être null)
+     */
+    static Outcome solve(Instance inst, double alpha, long timeLimit, long restarts, int threads, long seed,
+                         Incumbent incumbent, SearchTelemetry telemetry) {
+        long deadline = System.currentTimeMillis() + timeLimit;
+        threads = (int) Math.max(1, Math.min(threads, restarts));
+        ProbabilisticGreedy greedy = new ProbabilisticGreedy(inst, alpha);
+        LocalSearch localSearch = new LocalSearch(inst);
+        long upperBound = upperBound(inst);
+        AtomicBoolean reached = new AtomicBoolean(); // un thread a atteint upperBound : les autres s'arrêtent aussi
+
+        // Graines dérivées dans le thread principal : reproductible pour une graine et un nombre de threads donnés
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                long quota = restarts / threads + (t < restarts % threads ? 1 : 0);
+                SplittableRandom rand = root.split();
+                ProbabilisticGreedy g = greedy.copy();
+                LocalSearch ls = localSearch.copy();
+                futures.add(pool.submit(() -> worker(inst.n, g, ls, rand, quota, deadline, upperBound, reached,
+                        incumbent, telemetry)));
+            }
+
+            Outcome best = null;
+            long total = 0;
+            for (Future<Outcome> f : futures) {
+                Outcome o = f.get();
+                total += o.restarts;
+                if (best == null || o.value > best.value) best = o;
+            }
+            best.restarts = total;
+            return best;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("GRASP interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur GRASP", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Plus petite borne connue : aucune relance ne peut la dépasser. */
+    private static long upperBound(Instance inst) {
+        int[] order = KnapsackSolver.orderByRatio(inst);
+        long bound = KnapsackBounds.martelloTothU2(KnapsackBounds.permute(inst.weights, order),
+                KnapsackBounds.permute(inst.profits, order), inst.capacity);
+        return inst.optimalValue > 0 ? Math.min(bound, inst.optimalValue) : bound;
+    }
+
+    private static Outcome worker(int n, ProbabilisticGreedy greedy, LocalSearch localSearch,
+                                  SplittableRandom rand, long quota, long deadline, long upperBound,
+                                  AtomicBoolean reached, Incumbent incumbent, SearchTelemetry telemetry) {
+        Outcome best = new Outcome();
+        best.taken = new boolean[n];
+        boolean[] current = new boolean[n];
+
+        // Au moins une construction, même avec un temps nul
+        do {
+            greedy.run(rand, current);
+            long value = localSearch.improve(current, deadline);
+            best.restarts++;
+            if (value > best.value) {
+                best.value = value;
+                System.arraycopy(current, 0, best.taken, 0, n);
+                if (incumbent != null) incumbent.offer(value, current);
+                if (telemetry != null) telemetry.solution(value); // ignorée si un autre thread a déjà fait mieux
+                if (value >= upperBound) reached.set(true);
+            }
+        } while (best.restarts < quota && System.currentTimeMillis() < deadline && !reached.get()
+                && (incumbent == null || !incumbent.isClosed()));
+        return best;
+    }
+}
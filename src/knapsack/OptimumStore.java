@@ -0,0 +1,158 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Valeurs optimales connues, par nom d'instance, conservées d'une exécution à l'autre dans un CSV (Instance,Optimum).
+ * Toute méthode qui rend optimal=true y ajoute sa valeur ; les instances chargées la récupèrent dans optimalValue,
+ * ce qui permet de calculer le gap des méthodes incomplètes même quand aucune méthode exacte n'est relancée.
+ * Le fichier n'est jamais réécrit, seulement complété (la dernière ligne d'une instance l'emporte à la lecture).
+ */
+final class OptimumStore implements AutoCloseable {
+
+    static final String DEFAULT_FILE = "optima.csv";
+    private static final String HEADER = "Instance,Optimum";
+
+    private final Map<String, Integer> optima = new ConcurrentHashMap<>();
+    private final BufferedWriter out;
+
+    private OptimumStore(BufferedWriter out) {
+        this.out = out;
+    }
+
+    static OptimumStore open(String filename) throws IOException {
+        Path path = Path.of(filename);
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        Map<String, Integer> loaded = new ConcurrentHashMap<>();
+        if (exists) {
+            try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line = br.readLine(); // en-tête
+                while ((line = br.readLine()) != null) {
+                    int comma = line.lastIndexOf(',');
+                    if (comma <= 0) continue;
+                    try {
+                        loaded.put(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1).trim()));
+                    } catch (NumberFormatException e) {
+                        System.err.println("Ligne ignorée dans " + filename + ": " + line);
+                    }
+                }
+            }
+        }
+        BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (!exists) {
+            out.write(HEADER);
+            out.newLine();
+            out.flush();
+        }
+        OptimumStore store = new OptimumStore(out);
+        store.optima.putAll(loaded);
+        return store;
+    }
+
+    int size() {
+        return optima.size();
+    }
+
+    boolean has(String name) {
+        return optima.containsKey(name);
+    }
+
+    /** Renseigne optimalValue si l'optimum de l'instance est connu. */
+    void apply(Instance inst) {
+        Integer opt = optima.get(inst.name);
+        if (opt != null) inst.optimalValue = opt;
+    }
+
+    /** Enregistre la valeur d'un résultat prouvé optimal ; ignore les autres. */
+    void record(Instance inst, Result r) {
+        if (r.optimal) record(inst, r.bestValue, r.method);
+    }
+
+    synchronized void record(Instance inst, int value, String method) {
+        Integer known = optima.get(inst.name);
+        if (known != null) {
+            if (known != value) {
+                System.err.println("Optimum incohérent pour " + inst.name + ": " + method + " donne " + value + ", connu " + known);
+            }
+            return;
+        }
+        optima.put(inst.name, value);
+        if (inst.optimalValue <= 0) inst.optimalValue = value;
+        try {
+            out.write(inst.name + "," + value);
+            out.newLine();
+            out.flush(); // rare : une ligne par instance
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Calcule en parallèle les optima manquants avec la méthode exacte la plus rapide (Core),
+     * puis la DP si Core n'a pas conclu dans le temps imparti.
+     * @return nombre d'optima ajoutés
+     */
+    int precompute(Stream<Instance> instances, long timeLimit, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore pending = new Semaphore(2 * threads); // mémoire bornée si le flux vient de KplibLoader
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            Iterator<Instance> it = instances.iterator();
+            while (it.hasNext()) {
+                Instance inst = it.next();
+                if (has(inst.name)) continue;
+                pending.acquire();
+                futures.add(pool.submit(() -> {
+                    try {
+                        Result r = KnapsackSolver.solveCompleteCore(inst, timeLimit);
+                        if (!r.optimal) r = KnapsackSolver.solveCompleteDP(inst, timeLimit);
+                        record(inst, r);
+                        System.out.println("  - " + inst.name + " : " + (r.optimal ? "optimum=" + r.bestValue : "non prouvé")
+                                + " (" + r.method + ", " + r.timeMs + "ms)");
+                        return r.optimal;
+                    } finally {
+                        pending.release();
+                    }
+                }));
+            }
+            int added = 0;
+            for (Future<Boolean> f : futures) {
+                try {
+                    if (f.get()) added++;
+                } catch (ExecutionException e) {
+                    System.err.println("Erreur de résolution: " + e.getCause());
+                }
+            }
+            return added;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
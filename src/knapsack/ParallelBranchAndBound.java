@@ -0,0 +1,179 @@
+package knapsack;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Branch-and-bound parallèle : les depth premiers objets dans l'ordre des ratios sont décidés par des RecursiveTask
+ * (objet pris / laissé), chaque feuille de ce découpage est un sous-arbre exploré en profondeur d'abord
+ * par un BranchAndBound sans file. Les sous-arbres sont répartis par vol de tâches (ForkJoinPool).
+ *
+ * La meilleure valeur est partagée par l'Incumbent (AtomicReference) : chaque worker la relit toutes les 1024 nœuds
+ * et au démarrage d'un sous-arbre pour élaguer avec les solutions des autres.
+ * Le découpage vise 16 sous-arbres par thread ; un sous-arbre encore trop gros est redécoupé en cours de route
+ * (BranchAndBound.Donor) dès qu'un thread n'a plus rien à faire.
+ */
+final class ParallelBranchAndBound {
+
+    static final int SUBTREES_PER_THREAD = 16;
+
+    static class Outcome {
+        long value;
+        boolean[] taken;      // indices d'origine, null si aucune solution
+        boolean optimal;
+        long nodes;
+        long[] workerNodes;   // nœuds explorés par chaque thread
+    }
+
+    private final BranchAndBound.Items items;
+    private final int depth;
+    private final long deadline;
+    private final Incumbent incumbent;
+    private final SearchTelemetry telemetry;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Map<Thread, LongAdder> workerNodes = new ConcurrentHashMap<>();
+
+    private ParallelBranchAndBound(BranchAndBound.Items items, int depth, long deadline, Incumbent incumbent,
+                                   SearchTelemetry telemetry) {
+        this.items = items;
+        this.depth = depth;
+        this.deadline = deadline;
+        this.incumbent = incumbent;
+        this.telemetry = telemetry;
+    }
+
+    /** Profondeur de découpage : environ SUBTREES_PER_THREAD sous-arbres par thread, au plus n. */
+    static int splitDepth(int n, int threads) {
+        int depth = 64 - Long.numberOfLeadingZeros((long) threads * SUBTREES_PER_THREAD - 1);
+        return Math.min(n, depth);
+    }
+
+    /**
+     * @param order     ordre par ratio décroissant (KnapsackSolver.orderByRatio)
+     * @param incumbent borne partagée entre les workers (et avec les autres méthodes), non null
+     * @param telemetry reçoit chaque solution améliorante, ou null
+     */
+    static Outcome solve(int[] weights, int[] profits, int capacity, int[] order, long deadline, int threads,
+                         Incumbent incumbent, SearchTelemetry telemetry) {
+        BranchAndBound.Items items = new BranchAndBound.Items(weights, profits, capacity, order);
+        ParallelBranchAndBound search = new ParallelBranchAndBound(items, splitDepth(items.n, threads), deadline,
+                incumbent, telemetry);
+
+        // Solution critique d'abord : les premiers sous-arbres élaguent déjà avec elle
+        int b = items.breakFrom(0, capacity);
+        boolean[] sortedTaken = new boolean[items.n];
+        for (int k = 0; k < b; k++) sortedTaken[k] = true;
+        if (incumbent.offer(items.sp[b], items.original(sortedTaken)) && telemetry != null) telemetry.solution(items.sp[b]);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long nodes;
+        try {
+            nodes = pool.invoke(search.new Subtree(0, 0, 0, new boolean[search.depth]));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Outcome out = new Outcome();
+        out.value = incumbent.hasValue() ? incumbent.value() : 0;
+        out.taken = incumbent.solution();
+        out.optimal = !search.stopped.get();
+        out.nodes = nodes;
+        out.workerNodes = search.workerNodes.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getKey().getId()))
+                .mapToLong(e -> e.getValue().sum())
+                .toArray();
+        return out;
+    }
+
+    /** Nœud du découpage : objets 0..level-1 décidés (prefix), renvoie le nombre de nœuds de son sous-arbre. */
+    private final class Subtree extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int level;
+        private final long weight;
+        private final long profit;
+        private final boolean[] prefix;
+
+        Subtree(int level, long weight, long profit, boolean[] prefix) {
+            this.level = level;
+            this.weight = weight;
+            this.profit = profit;
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected Long compute() {
+            if (stopped.get()) return 0L;
+            if (incumbent.isClosed()) { // sous-arbre abandonné : l'exploration n'est plus une preuve
+                stopped.set(true);
+                return 0L;
+            }
+            if (level >= depth) return explore(); // feuille du découpage ou branche cédée
+            if (System.currentTimeMillis() > deadline) {
+                stopped.set(true);
+                return 0L;
+            }
+            count(1);
+
+            long residual = items.c - weight;
+            long bound = items.upperBound(level, residual, profit);
+            if (incumbent.hasValue() && bound <= incumbent.value()) return 1L;
+
+            Subtree leave = child(false, weight, profit);
+            if (items.w[level] > residual) return 1L + leave.compute();
+            // La branche « objet pris » reste sur ce thread (ordre de la recherche séquentielle), l'autre peut être volée
+            Subtree take = child(true, weight + items.w[level], profit + items.p[level]);
+            leave.fork();
+            long nodes = take.compute();
+            return 1L + nodes + leave.join();
+        }
+
+        private Subtree child(boolean taken, long weight, long profit) {
+            boolean[] next = prefix.clone();
+            next[level] = taken;
+            return new Subtree(level + 1, weight, profit, next);
+        }
+
+        /**
+         * Feuille du découpage : sous-arbre entier en profondeur d'abord (file de taille nulle).
+         * Si un thread est inactif et qu'aucune tâche n'attend, la branche en attente la moins profonde devient
+         * une nouvelle tâche : un sous-arbre bien plus gros que les autres ne reste pas sur un seul thread.
+         */
+        private long explore() {
+            List<Subtree> donated = new ArrayList<>();
+            ForkJoinPool pool = getPool();
+            BranchAndBound.Donor donor = new BranchAndBound.Donor() {
+                @Override
+                public boolean wantsWork() {
+                    return pool.getActiveThreadCount() < pool.getParallelism() && pool.getQueuedTaskCount() == 0;
+                }
+
+                @Override
+                public void donate(int level, long weight, long profit, boolean[] prefix) {
+                    Subtree task = new Subtree(level, weight, profit, prefix);
+                    donated.add(task);
+                    task.fork();
+                }
+            };
+            BranchAndBound bb = new BranchAndBound(items, deadline, 0, incumbent, telemetry);
+            bb.exploreSubtree(level, weight, profit, prefix, pool.getParallelism() > 1 ? donor : null);
+            if (bb.stopped()) stopped.set(true);
+            count(bb.nodes());
+
+            long nodes = bb.nodes();
+            for (Subtree task : donated) nodes += task.join();
+            return nodes;
+        }
+
+        private void count(long nodes) {
+            workerNodes.computeIfAbsent(Thread.currentThread(), t -> new LongAdder()).add(nodes);
+        }
+    }
+}
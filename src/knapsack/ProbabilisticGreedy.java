@@ -0,0 +1,118 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Glouton probabiliste : à chaque étape, un objet encore admissible est tiré avec une probabilité
+ * proportionnelle à h(i)^alpha, h(i) = profit / poids.
+ * Les h(i)^alpha sont calculés une seule fois et rangés dans un arbre de sommes : tirage et retrait en O(log n).
+ * Les objets sont aussi triés par poids décroissant, ce qui permet de retirer ceux qui ne rentrent plus
+ * en avançant un simple curseur. Aucune allocation pendant run(), l'objet peut être réutilisé entre les relances.
+ */
+final class ProbabilisticGreedy {
+
+    private final int[] weights;
+    private final int[] profits;
+    private final int capacity;
+    private final int leaves;          // puissance de 2 >= n
+    private final double[] initialTree;
+    private final double[] tree;       // tree[1] = somme totale, feuilles en [leaves, leaves + n)
+    private final int[] byWeight;      // objets par poids décroissant
+
+    ProbabilisticGreedy(Instance inst, double alpha) {
+        int n = inst.n;
+        this.weights = inst.weights;
+        this.profits = inst.profits;
+        this.capacity = inst.capacity;
+
+        int size = 1;
+        while (size < n) size <<= 1;
+        this.leaves = size;
+        this.initialTree = new double[2 * size];
+        for (int i = 0; i < n; i++) {
+            initialTree[size + i] = Math.pow((double) profits[i] / weights[i], alpha);
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            initialTree[node] = initialTree[2 * node] + initialTree[2 * node + 1];
+        }
+        this.tree = new double[2 * size];
+
+        Integer[] idx = new Integer[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        Arrays.sort(idx, (i, j) -> Integer.compare(weights[j], weights[i]));
+        this.byWeight = Arrays.stream(idx).mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Copie pour un autre thread : partage les données précalculées, seul l'arbre de travail est dupliqué. */
+    private ProbabilisticGreedy(ProbabilisticGreedy other) {
+        this.weights = other.weights;
+        this.profits = other.profits;
+        this.capacity = other.capacity;
+        this.leaves = other.leaves;
+        this.initialTree = other.initialTree;
+        this.tree = new double[other.tree.length];
+        this.byWeight = other.byWeight;
+    }
+
+    ProbabilisticGreedy copy() {
+        return new ProbabilisticGreedy(this);
+    }
+
+    /**
+     * Construit une solution.
+     * @param taken rempli avec les objets retenus (remis à false au départ)
+     * @return profit total
+     */
+    long run(RandomGenerator rand, boolean[] taken) {
+        Arrays.fill(taken, false);
+        System.arraycopy(initialTree, 0, tree, 0, tree.length);
+
+        long totalProfit = 0;
+        int remaining = capacity;
+        int cursor = 0; // objets de byWeight[0 .. cursor) déjà écartés car trop lourds
+        cursor = dropTooHeavy(cursor, remaining);
+
+        while (tree[1] > 0) {
+            // Tirage probabiliste : descente dans l'arbre de sommes
+            double r = rand.nextDouble() * tree[1];
+            int node = 1;
+            while (node < leaves) {
+                int left = 2 * node;
+                if (tree[left] > 0 && (r < tree[left] || tree[left + 1] <= 0)) {
+                    node = left;
+                } else {
+                    r -= tree[left];
+                    node = left + 1;
+                }
+            }
+            int chosen = node - leaves;
+
+            taken[chosen] = true;
+            totalProfit += profits[chosen];
+            remaining -= weights[chosen];
+            remove(chosen);
+            cursor = dropTooHeavy(cursor, remaining);
+        }
+        return totalProfit;
+    }
+
+    private int dropTooHeavy(int cursor, int remaining) {
+        while (cursor < byWeight.length && weights[byWeight[cursor]] > remaining) {
+            remove(byWeight[cursor]);
+            cursor++;
+        }
+        return cursor;
+    }
+
+    private void remove(int item) {
+        int node = leaves + item;
+        if (tree[node] == 0) return;
+        tree[node] = 0;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            tree[node] = tree[2 * node] + tree[2 * node + 1];
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Instance;
+import knapsack.KnapsackSolver.Result;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture des résultats en CSV au fil de l'eau : chaque Result est ajouté dès qu'il est produit,
+ * et le tampon est vidé après chaque ligne, si bien qu'un arrêt brutal ne perd aucun résultat terminé.
+ * En reprise, le fichier existant est conservé et les couples (instance, méthode) déjà présents sont sautés.
+ */
+class ResultWriter implements AutoCloseable {
+
+    static final String HEADER = "Instance,Difficulty,Class,n,Capacity,TotalWeight,TotalProfit,Method,Value,Time(ms),Nodes,Optimal,OptimalKnown,Gap(%),Build(ms),FirstSolution(ms),BestSolution(ms),Improvements,Fails,Backtracks,PeakHeap(MB),WorkerNodes";
+
+    private static final int COL_INSTANCE = 0;
+    private static final int COL_METHOD = 7;
+    private static final int COL_VALUE = 8;
+    private static final int COL_OPTIMAL = 11;
+
+    private final Set<String> done = new HashSet<>();
+    private final Map<String, Integer> knownOptima = new HashMap<>(); // valeurs optimales lues en reprise
+    private final BufferedWriter writer;
+
+    /**
+     * @param resume true : on complète le fichier existant au lieu de l'écraser
+     */
+    ResultWriter(String filename, boolean resume) throws IOException {
+        Path path = Path.of(filename);
+        boolean append = resume && Files.exists(path) && Files.size(path) > 0;
+        if (append) readExisting(path);
+
+        this.writer = append
+                ? Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        if (!append) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    static Map<String, Instance> indexByName(List<Instance> instances) {
+        Map<String, Instance> map = new HashMap<>(instances.size() * 2);
+        for (Instance inst : instances) map.putIfAbsent(inst.name, inst);
+        return map;
+    }
+
+    /** Couples déjà écrits, et valeurs optimales trouvées par une exécution précédente. */
+    private void readExisting(Path path) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = br.readLine(); // en-tête
+            if (!HEADER.equals(line)) {
+                System.err.println("Attention: colonnes de " + path + " différentes de l'en-tête courant, les lignes ajoutées n'auront pas le même format");
+            }
+            while ((line = br.readLine()) != null) {
+                String[] cols = line.split(",");
+                if (cols.length <= COL_OPTIMAL) continue; // ligne tronquée par un arrêt brutal
+                done.add(key(cols[COL_INSTANCE], cols[COL_METHOD]));
+                if (Boolean.parseBoolean(cols[COL_OPTIMAL])) {
+                    knownOptima.put(cols[COL_INSTANCE], Integer.parseInt(cols[COL_VALUE]));
+                }
+            }
+        }
+    }
+
+    private static String key(String instance, String method) {
+        return instance + '\u0000' + method;
+    }
+
+    /** @param method nom tel qu'il apparaît dans Result.method */
+    synchronized boolean isDone(String instance, String method) {
+        return done.contains(key(instance, method));
+    }
+
+    /** Renseigne optimalValue à partir du fichier repris, pour que le gap reste juste si la DP n'est pas relancée. */
+    synchronized void restore(Instance inst) {
+        Integer opt = knownOptima.get(inst.name);
+        if (opt != null && inst.optimalValue <= 0) inst.optimalValue = opt;
+    }
+
+    synchronized int doneCount() {
+        return done.size();
+    }
+
+    synchronized void write(Instance inst, Result r) {
+        try {
+            writer.write(row(inst, r));
+            writer.newLine();
+            done.add(key(r.instance, r.method));
+            writer.flush(); // une ligne par (instance, méthode) : rare devant le temps de résolution
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /** Ligne CSV d'un résultat (sans fin de ligne), partagée avec KnapsackSolver.exportToCSV. */
+    static String row(Instance inst, Result r) {
+        int totalWeight = Arrays.stream(inst.weights).sum();
+        int totalProfit = Arrays.stream(inst.profits).sum();
+
+        // Gestion multiplateforme
+        String cls = "Unknown";
+        if (r.instance.matches("^(easy|medium|hard)_.*")) cls = "Generated";
+        else if (inst.name.contains(File.separator)) cls = inst.name.split(Pattern.quote(File.separator))[0];
+
+        // Locale.ROOT : point décimal quelle que soit la langue du système, la virgule sépare les colonnes
+        // Nœuds par thread des méthodes parallèles, séparés par ';' (vide sinon)
+        String workers = r.workerNodes == null ? ""
+                : Arrays.stream(r.workerNodes).mapToObj(Long::toString).collect(Collectors.joining(";"));
+
+        return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%s,%d,%d,%d,%b,%d,%.2f,%d,%d,%d,%d,%d,%d,%d,%s",
+                inst.name, inst.difficulty, cls, inst.n, inst.capacity,
+                totalWeight, totalProfit, r.method, r.bestValue, r.timeMs,
+                r.nodes, r.optimal, r.optimalKnown, r.gapPercent, r.buildMs,
+                r.firstSolutionMs, r.bestSolutionMs, r.improvements, r.fails, r.backtracks, r.peakHeapMb, workers
+        );
+    }
+}
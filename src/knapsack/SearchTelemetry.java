@@ -0,0 +1,80 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Result;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Compteurs d'une résolution, recopiés dans Result : temps de la première et de la meilleure solution
+ * (depuis le début de la recherche, comme timeMs), nombre de solutions améliorantes, leur trace
+ * (ConvergenceTrace) et pic de tas observé.
+ *
+ * Le tas est celui de toute la JVM, échantillonné au début, à chaque amélioration et à la fin :
+ * avec plusieurs méthodes en parallèle, c'est un majorant de ce qu'utilise la méthode.
+ */
+final class SearchTelemetry {
+
+    private static final long MB = 1024 * 1024;
+
+    private final long start = System.currentTimeMillis();
+    private final boolean tracksSolutions;
+    private long best = Long.MIN_VALUE;
+    private long firstSolutionMs = -1;
+    private long bestSolutionMs = -1;
+    private long improvements;
+    private long peakHeap;
+    private final ConvergenceTrace trace = new ConvergenceTrace();
+
+    /** @param tracksSolutions false si le solveur ne signale pas ses solutions (CBC) : compteurs laissés à -1 */
+    SearchTelemetry(boolean tracksSolutions) {
+        this.tracksSolutions = tracksSolutions;
+        sampleHeap();
+    }
+
+    /** Chaque solution trouvée par Choco passe par solution(objectif). */
+    static SearchTelemetry choco(Solver solver, IntVar objective) {
+        return new SearchTelemetry(true).watch(solver, objective);
+    }
+
+    /** Branche un solveur de plus, ex. les modèles d'un ParallelPortfolio qui partagent les mêmes compteurs. */
+    SearchTelemetry watch(Solver solver, IntVar objective) {
+        solver.plugMonitor((IMonitorSolution) () -> solution(objective.getValue()));
+        return this;
+    }
+
+    /** Solution de valeur value ; seules les améliorations strictes comptent. */
+    synchronized void solution(long value) {
+        if (value <= best) return;
+        long now = System.currentTimeMillis() - start;
+        if (firstSolutionMs < 0) firstSolutionMs = now;
+        bestSolutionMs = now;
+        best = value;
+        improvements++;
+        trace.add(now, value);
+        sampleHeap();
+    }
+
+    private void sampleHeap() {
+        Runtime rt = Runtime.getRuntime();
+        peakHeap = Math.max(peakHeap, rt.totalMemory() - rt.freeMemory());
+    }
+
+    /** Recopie les compteurs dans r, avec les échecs et retours arrière du solveur Choco s'il est donné. */
+    synchronized Result fill(Result r, Solver solver) {
+        sampleHeap();
+        if (tracksSolutions) {
+            r.firstSolutionMs = firstSolutionMs;
+            r.bestSolutionMs = bestSolutionMs;
+            r.improvements = improvements;
+            r.trace = trace;
+        }
+        r.peakHeapMb = peakHeap / MB;
+        if (solver != null) {
+            r.fails = solver.getFailCount();
+            r.backtracks = solver.getBackTrackCount();
+        }
+        return r;
+    }
+}
@@ -0,0 +1,67 @@
+package knapsack;
+
+import knapsack.KnapsackSolver.Result;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Traces de convergence de tout un benchmark dans un seul CSV long (Instance,Method,Time(ms),Value),
+ * une ligne par solution améliorante, lu par result_analysis.ipynb.
+ * Les méthodes sans suivi des solutions (DP, Core, gloutons, CBC) n'ont qu'un point : leur valeur finale à timeMs.
+ * Même politique d'écriture que ResultWriter : ajout au fil de l'eau, tampon vidé après chaque Result.
+ */
+final class TraceWriter implements AutoCloseable {
+
+    static final String HEADER = "Instance,Method,Time(ms),Value";
+
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder(64);
+
+    /**
+     * @param append true : on complète le fichier existant (reprise d'un benchmark)
+     */
+    TraceWriter(String filename, boolean append) throws IOException {
+        Path path = Path.of(filename);
+        boolean exists = append && Files.exists(path) && Files.size(path) > 0;
+        this.writer = exists
+                ? Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        if (!exists) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    synchronized void write(Result r) {
+        try {
+            ConvergenceTrace trace = r.trace;
+            if (trace != null && trace.size() > 0) {
+                for (int i = 0; i < trace.size(); i++) point(r, trace.timeMs(i), trace.value(i));
+            } else if (r.bestValue > 0) {
+                point(r, r.timeMs, r.bestValue);
+            }
+            writer.flush(); // une trace par (instance, méthode) : rare, et complète sur disque dès qu'elle est écrite
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void point(Result r, long time, long value) throws IOException {
+        line.setLength(0);
+        line.append(r.instance).append(',').append(r.method).append(',').append(time).append(',').append(value);
+        writer.append(line);
+        writer.newLine();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}